@@ -21,6 +21,7 @@ dependencies {
     // This dependency is used by the application.
     implementation(libs.guava)
     implementation(libs.google.gson)
+    testImplementation(libs.assertj.core)
 }
 
 testing {
@@ -1,6 +1,10 @@
 package com.vibevault.model;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -77,12 +81,42 @@ public class Playlist {
      */
     public void loadFromStrings(List<String> csvLines) {
         this.songs.clear(); // 清空旧数据
+        // 复用同一个读取器，避免每一行都创建新的解析缓冲区
+        SongCsvCodec.SongReader reader = new SongCsvCodec.SongReader("");
         for (String line : csvLines) {
-            // 跳过空行
-            if (line == null || line.trim().isEmpty()) {
+            // 跳过空行，和 readCsv 的行为保持一致
+            if (line == null || line.isBlank()) {
                 continue;
             }
-            this.songs.add(Song.fromCsvString(line));
+            this.songs.add(reader.parseLine(line));
+        }
+    }
+
+    /**
+     * 把整个播放列表以CSV格式流式写出，不会先在内存中拼出所有行。
+     * @param out 输出目标，例如 Files.newBufferedWriter(path)
+     * @throws IOException 如果写入失败
+     */
+    public void writeCsv(Writer out) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        for (Song song : songs) {
+            SongCsvCodec.write(song, out);
+            out.write(lineSeparator);
+        }
+    }
+
+    /**
+     * 从CSV字符流中流式读取歌曲，重建播放列表。
+     * 注意：这将清空当前播放列表。
+     * @param in 输入来源，例如 Files.newBufferedReader(path)
+     * @throws IOException 如果读取失败
+     */
+    public void readCsv(Reader in) throws IOException {
+        this.songs.clear();
+        SongCsvCodec.SongReader reader = new SongCsvCodec.SongReader(in);
+        Song song;
+        while ((song = reader.next()) != null) {
+            this.songs.add(song);
         }
     }
 
@@ -91,7 +125,6 @@ public class Playlist {
      * @param filePath 文件的路径，例如 "data/playlist.csv"
      */
     public void saveToFile(String filePath) {
-        List<String> csvLines = this.saveToStrings();
         Path path = Paths.get(filePath);
         try {
             // 确保目录存在
@@ -99,7 +132,9 @@ public class Playlist {
             if (parentDir != null && Files.notExists(parentDir)) {
                 Files.createDirectories(parentDir);
             }
-            Files.write(path, csvLines);
+            try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+                this.writeCsv(writer);
+            }
             System.out.println("✅ 播放列表已成功保存到 " + filePath);
         } catch (IOException e) {
             // 提供更友好的用户反馈
@@ -122,8 +157,9 @@ public class Playlist {
         }
 
         try {
-            List<String> csvLines = Files.readAllLines(path);
-            this.loadFromStrings(csvLines);
+            try (BufferedReader reader = Files.newBufferedReader(path)) {
+                this.readCsv(reader);
+            }
             System.out.println("✅ 播放列表已从 " + filePath + " 成功加载。");
         } catch (IOException e) {
             System.err.println("❌ 错误：无法从文件加载播放列表。文件可能已损坏或无读取权限。");
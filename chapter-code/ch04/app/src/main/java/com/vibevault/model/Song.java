@@ -6,46 +6,31 @@ public record Song(String title, String artist, int durationInSeconds) {
      * 将Song对象序列化为CSV格式的字符串。
      * 例如: "Bohemian Rhapsody,Queen,355"
      * 
-     * 注意：当前实现不支持标题或艺术家中包含逗号的情况。
-     * 如果需要支持，请考虑使用JSON格式或实现RFC 4180标准的CSV解析。
+     * 标题或艺术家中包含逗号、双引号时，会按照RFC 4180标准用双引号包裹，
+     * 例如: "\"Hello, Goodbye\",The Beatles,208"。具体规则见 {@link SongCsvCodec}。
+     * 标题或艺术家为 null 时写成空字段，读回来是空字符串 ""（以前会写成字符串 "null"）。
      * 
      * @return CSV格式的字符串
      */
     public String toCsvString() {
-        return String.format("%s,%s,%d", title, artist, durationInSeconds);
+        return SongCsvCodec.toCsv(this);
     }
 
     /**
      * 从CSV格式的字符串反序列化，创建一个Song对象。
      * 这是一个静态工厂方法。
      * 
+     * 注意：末尾多一个逗号（例如 "a,b,1,"）现在算作4个字段，会被拒绝；
+     * 以前 split(",") 会丢掉末尾的空字段，把这样的行当成正确的行接受。
+     * 
      * @param csvLine CSV格式的一行文本
      * @return 一个新的Song对象
      * @throws IllegalArgumentException 如果CSV格式不正确（字段数量不对或时长不是数字）
      */
     public static Song fromCsvString(String csvLine) {
-        if (csvLine == null || csvLine.trim().isEmpty()) {
+        if (csvLine == null || csvLine.isBlank()) {
             throw new IllegalArgumentException("CSV行不能为空");
         }
-        
-        String[] fields = csvLine.split(",");
-        
-        if (fields.length != 3) {
-            throw new IllegalArgumentException(
-                "CSV格式错误：期望3个字段，实际得到 " + fields.length + " 个字段"
-            );
-        }
-        
-        String title = fields[0].trim();
-        String artist = fields[1].trim();
-        
-        try {
-            int duration = Integer.parseInt(fields[2].trim());
-            return new Song(title, artist, duration);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException(
-                "CSV格式错误：时长必须是数字，得到的是 '" + fields[2] + "'"
-            );
-        }
+        return SongCsvCodec.parse(csvLine);
     }
 }
\ No newline at end of file
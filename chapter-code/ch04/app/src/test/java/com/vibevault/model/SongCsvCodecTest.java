@@ -0,0 +1,115 @@
+package com.vibevault.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SongCsvCodecTest {
+
+    @Test
+    @DisplayName("should write simple songs exactly like the old comma-joined format")
+    void shouldWriteSimpleSongsUnquoted() {
+        Song song = new Song("Hey Jude", "The Beatles", 431);
+
+        assertThat(song.toCsvString()).isEqualTo("Hey Jude,The Beatles,431");
+    }
+
+    @Test
+    @DisplayName("should trim unquoted fields like the old split-and-trim parser")
+    void shouldTrimUnquotedFields() {
+        assertThat(Song.fromCsvString(" Yesterday , The Beatles , 121 "))
+            .isEqualTo(new Song("Yesterday", "The Beatles", 121));
+    }
+
+    @Test
+    @DisplayName("should quote and round-trip titles containing commas and quotes")
+    void shouldRoundTripQuotedFields() {
+        Song song = new Song("Hello, \"Goodbye\"", "The Beatles", 208);
+
+        String csvLine = song.toCsvString();
+
+        assertThat(csvLine).isEqualTo("\"Hello, \"\"Goodbye\"\"\",The Beatles,208");
+        assertThat(Song.fromCsvString(csvLine)).isEqualTo(song);
+    }
+
+    @Test
+    @DisplayName("should parse directly from a CharBuffer")
+    void shouldParseFromCharBuffer() {
+        CharBuffer buffer = CharBuffer.wrap("Yesterday,The Beatles,121");
+
+        assertThat(SongCsvCodec.parse(buffer)).isEqualTo(new Song("Yesterday", "The Beatles", 121));
+    }
+
+    @Test
+    @DisplayName("should stream a playlist through a Writer and back through a Reader")
+    void shouldStreamPlaylistRoundTrip() throws IOException {
+        Playlist original = new Playlist("Streaming");
+        original.addSong(new Song("Bohemian Rhapsody", "Queen", 355));
+        original.addSong(new Song("Line\nBreak", " Padded ", 1));
+        StringWriter out = new StringWriter();
+
+        original.writeCsv(out);
+        Playlist loaded = new Playlist("Loaded");
+        loaded.readCsv(new StringReader(out.toString()));
+
+        assertThat(loaded.getSongs()).containsExactlyElementsOf(original.getSongs());
+    }
+
+    @Test
+    @DisplayName("should skip blank and whitespace-only lines the same way in readCsv and loadFromStrings")
+    void shouldSkipWhitespaceOnlyLinesInBothLoaders() throws IOException {
+        List<String> lines = List.of("Yesterday,The Beatles,121", "", "  \t ", "Let It Be,The Beatles,243");
+        Playlist fromStrings = new Playlist("Strings");
+        Playlist fromReader = new Playlist("Reader");
+
+        fromStrings.loadFromStrings(lines);
+        fromReader.readCsv(new StringReader(String.join("\n", lines) + "\n"));
+
+        assertThat(fromReader.getSongs())
+            .containsExactly(new Song("Yesterday", "The Beatles", 121), new Song("Let It Be", "The Beatles", 243))
+            .containsExactlyElementsOf(fromStrings.getSongs());
+    }
+
+    @Test
+    @DisplayName("should reject lines with the wrong number of fields")
+    void shouldRejectWrongFieldCount() {
+        assertThatThrownBy(() -> Song.fromCsvString("Hello, Goodbye,The Beatles,208"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("4");
+    }
+
+    @Test
+    @DisplayName("should reject a trailing comma that split(\",\") used to ignore")
+    void shouldRejectTrailingComma() {
+        assertThatThrownBy(() -> Song.fromCsvString("Yesterday,The Beatles,121,"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("4");
+    }
+
+    @Test
+    @DisplayName("should reject a non-numeric duration")
+    void shouldRejectNonNumericDuration() {
+        assertThatThrownBy(() -> Song.fromCsvString("Yesterday,The Beatles,abc"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("abc");
+    }
+
+    @Test
+    @DisplayName("should write null title and artist as empty fields that read back as empty strings")
+    void shouldWriteNullFieldsAsEmpty() {
+        Song song = new Song(null, null, 3);
+
+        String csvLine = song.toCsvString();
+
+        assertThat(csvLine).isEqualTo(",,3");
+        assertThat(Song.fromCsvString(csvLine)).isEqualTo(new Song("", "", 3));
+    }
+}
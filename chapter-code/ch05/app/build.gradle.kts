@@ -9,6 +9,7 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -47,6 +48,13 @@ application {
     mainClass = "com.vibevault.app.VibeVaultApp"
 }
 
+// 性能基准测试：./gradlew jmh，结果以JSON格式写到 build/reports/jmh/results.json，便于在版本之间对比
+jmh {
+    jmhVersion = libs.versions.jmh
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
 tasks.withType<JavaExec> {
     standardInput = System.`in`
 }
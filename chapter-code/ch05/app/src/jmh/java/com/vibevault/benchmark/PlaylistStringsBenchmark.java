@@ -0,0 +1,61 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Playlist.saveToStrings / loadFromStrings 在不同歌曲数下的耗时。
+ * 艺术家在 500 个名字中循环，标题里有一部分带逗号和引号，覆盖需要加引号的字段。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlaylistStringsBenchmark {
+
+    private static final int DISTINCT_ARTISTS = 500;
+
+    @Param({"10", "10000", "1000000"})
+    private int songCount;
+
+    private Playlist playlist;
+    private List<String> csvLines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        playlist = new Playlist("jmh-" + songCount);
+        for (int i = 0; i < songCount; i++) {
+            String title = i % 10 == 0 ? "Song \"" + i + "\", live" : "Song " + i;
+            playlist.addSong(new Song(title, "Artist " + (i % DISTINCT_ARTISTS), 120 + i % 300));
+        }
+        csvLines = playlist.saveToStrings();
+    }
+
+    @Benchmark
+    public List<String> saveToStrings() {
+        return playlist.saveToStrings();
+    }
+
+    @Benchmark
+    public Playlist loadFromStrings() {
+        Playlist loaded = new Playlist("jmh-load");
+        loaded.loadFromStrings(csvLines);
+        return loaded;
+    }
+}
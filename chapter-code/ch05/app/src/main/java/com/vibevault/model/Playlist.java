@@ -1,6 +1,8 @@
 package com.vibevault.model;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -77,20 +79,55 @@ public class Playlist {
      */
     public void loadFromStrings(List<String> csvLines) {
         this.songs.clear(); // 清空旧数据
+        // 复用同一个读取器，避免每一行都创建新的解析缓冲区
+        SongCsvCodec.SongReader reader = new SongCsvCodec.SongReader("");
         for (String line : csvLines) {
-            this.songs.add(Song.fromCsvString(line));
+            // 跳过空行，和 readCsv 的行为保持一致
+            if (line == null || line.isBlank()) {
+                continue;
+            }
+            this.songs.add(reader.parseLine(line));
+        }
+    }
+
+    /**
+     * 把整个播放列表以CSV格式流式写出，不会先在内存中拼出所有行。
+     * @param out 输出目标，例如 Files.newBufferedWriter(path)
+     * @throws IOException 如果写入失败
+     */
+    public void writeCsv(Writer out) throws IOException {
+        String lineSeparator = System.lineSeparator();
+        for (Song song : songs) {
+            SongCsvCodec.write(song, out);
+            out.write(lineSeparator);
+        }
+    }
+
+    /**
+     * 从CSV字符流中流式读取歌曲，重建播放列表，适合导入很大的文件。
+     * 注意：这将清空当前播放列表。
+     * @param in 输入来源，例如 Files.newBufferedReader(path)
+     * @throws IOException 如果读取失败
+     */
+    public void readCsv(Reader in) throws IOException {
+        this.songs.clear();
+        SongCsvCodec.SongReader reader = new SongCsvCodec.SongReader(in);
+        Song song;
+        while ((song = reader.next()) != null) {
+            this.songs.add(song);
         }
     }
 
     /**
      * 将当前播放列表保存到磁盘文件。
+     * 通过 {@link #writeCsv(Writer)} 写出，标题中的逗号、引号和换行都会按CSV规则加引号，
+     * 之后用 {@link #loadFromFile(String)} 可以原样读回来。
      * @param filePath 文件的路径，例如 "playlist.csv"
      */
     public void saveToFile(String filePath) {
-        List<String> csvLines = this.saveToStrings();
         Path path = Paths.get(filePath);
-        try {
-            Files.write(path, csvLines);
+        try (Writer out = Files.newBufferedWriter(path)) {
+            this.writeCsv(out);
             System.out.println("播放列表已成功保存到 " + filePath);
         } catch (IOException e) {
             // 提供更友好的用户反馈
@@ -102,13 +139,14 @@ public class Playlist {
 
     /**
      * 从磁盘文件加载播放列表。
+     * 通过 {@link #readCsv(Reader)} 按CSV记录读取，而不是按物理行读取：
+     * 一个加了引号、内容跨越多行的字段会被当成同一首歌。
      * @param filePath 文件的路径，例如 "playlist.csv"
      */
     public void loadFromFile(String filePath) {
         Path path = Paths.get(filePath);
-        try {
-            List<String> csvLines = Files.readAllLines(path); // 魔法发生的地方！
-            this.loadFromStrings(csvLines); // 调用我们之前写的反序列化方法
+        try (Reader in = Files.newBufferedReader(path)) {
+            this.readCsv(in);
         } catch (IOException e) {
             // 在下一节，我们将详细讨论如何处理这个异常
             System.out.println("信息：未找到播放列表文件或读取失败，将创建一个新的播放列表。");
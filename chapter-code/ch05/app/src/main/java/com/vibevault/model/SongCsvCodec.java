@@ -0,0 +1,323 @@
+package com.vibevault.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+
+/**
+ * Song 的流式 CSV 编解码器，遵循 RFC 4180 标准：
+ * - 标题或艺术家中包含逗号、双引号或换行时，整个字段用双引号包裹，字段内的双引号写成两个双引号；
+ * - 没有加引号的字段会去掉首尾空白，与早期 fromCsvString 的 trim 行为保持一致。
+ *
+ * 和 split(",") / String.format 不同，它逐个字符地直接从 Reader 或 CharSequence（包括 CharBuffer）
+ * 中解析，时长字段直接解析成 int，每一行只会分配标题、艺术家两个字符串和最终的 Song 对象。
+ */
+public final class SongCsvCodec {
+
+    private static final int EOF = -1;
+
+    private SongCsvCodec() {
+        // 工具类，不需要实例化
+    }
+
+    /**
+     * 把一首歌写成一行CSV（不包含换行符）。
+     * @param song 要写出的歌曲
+     * @param out 输出目标，例如 Writer 或 StringBuilder
+     * @throws IOException 如果底层输出失败
+     */
+    public static void write(Song song, Appendable out) throws IOException {
+        writeField(song.title(), out);
+        out.append(',');
+        writeField(song.artist(), out);
+        out.append(',');
+        writeInt(song.durationInSeconds(), out);
+    }
+
+    /**
+     * 把一首歌编码成一行CSV字符串。
+     * @param song 要编码的歌曲
+     * @return CSV格式的字符串
+     */
+    public static String toCsv(Song song) {
+        StringBuilder line = new StringBuilder(lengthOf(song.title()) + lengthOf(song.artist()) + 16);
+        try {
+            write(song, line);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException，这里只是为了满足 Appendable 的方法签名
+            throw new UncheckedIOException(e);
+        }
+        return line.toString();
+    }
+
+    /**
+     * 从一行CSV文本中解析出一首歌。
+     * @param line CSV格式的一行文本
+     * @return 一个新的Song对象
+     * @throws IllegalArgumentException 如果CSV格式不正确
+     */
+    public static Song parse(CharSequence line) {
+        return new SongReader(line).parseLine(line);
+    }
+
+    private static void writeField(String value, Appendable out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return false;
+        }
+        // 首尾的空白在读取未加引号的字段时会被去掉，所以也需要用引号保护起来
+        if (isPadding(value.charAt(0)) || isPadding(value.charAt(length - 1))) {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeInt(int value, Appendable out) throws IOException {
+        if (value == Integer.MIN_VALUE) {
+            out.append("-2147483648");
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            out.append((char) ('0' + value / divisor));
+            value %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    private static boolean isPadding(int c) {
+        return c == ' ' || c == '\t';
+    }
+
+    private static int lengthOf(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * 逐行读取歌曲的流式读取器。
+     * 内部的字符缓冲区和字段缓冲区会在各行之间复用，适合导入上百万行的大文件。
+     */
+    public static final class SongReader implements Closeable {
+
+        private static final int BUFFER_SIZE = 8192;
+
+        private final Reader in;
+        private final char[] buffer;
+        private final StringBuilder field = new StringBuilder(64);
+        private CharSequence source;
+        private int position;
+        private int limit;
+
+        /**
+         * 从字符流中读取歌曲，例如 Files.newBufferedReader(path) 返回的 Reader。
+         * @param in 字符输入流
+         */
+        public SongReader(Reader in) {
+            this.in = in;
+            this.buffer = new char[BUFFER_SIZE];
+        }
+
+        /**
+         * 从内存中的字符序列读取歌曲，例如 String 或 CharBuffer。
+         * @param source 字符序列
+         */
+        public SongReader(CharSequence source) {
+            this.in = null;
+            this.buffer = null;
+            reset(source);
+        }
+
+        private void reset(CharSequence source) {
+            if (in != null) {
+                throw new IllegalStateException("基于 Reader 的读取器不能逐行解析");
+            }
+            this.source = source;
+            this.position = 0;
+            this.limit = source.length();
+        }
+
+        /**
+         * 把一行文本解析成一首歌。基于字符序列的读取器可以反复调用它来解析多行文本，
+         * 字段缓冲区会被复用。
+         * @param line CSV格式的一行文本
+         * @return 一个新的Song对象
+         * @throws IllegalArgumentException 如果CSV格式不正确
+         */
+        public Song parseLine(CharSequence line) {
+            reset(line);
+            Song song = nextFromSequence();
+            if (song == null) {
+                throw new IllegalArgumentException("CSV行不能为空");
+            }
+            if (nextFromSequence() != null) {
+                throw new IllegalArgumentException("CSV格式错误：一行中只能包含一首歌");
+            }
+            return song;
+        }
+
+        /**
+         * 读取下一首歌，空行和只包含空格、制表符的行都会被跳过。
+         * @return 下一首歌；没有更多数据时返回 null
+         * @throws IOException 如果底层 Reader 读取失败
+         * @throws IllegalArgumentException 如果CSV格式不正确
+         */
+        public Song next() throws IOException {
+            int c = read();
+            // 行首的空白本来就会被 readField 跳过，这里一起跳过，只包含空白的行就不会被当成一个字段
+            while (isPadding(c) || c == '\n' || c == '\r') {
+                c = read();
+            }
+            if (c == EOF) {
+                return null;
+            }
+
+            String title = null;
+            String artist = null;
+            int duration = 0;
+            int fieldCount = 0;
+            while (true) {
+                c = readField(c);
+                fieldCount++;
+                if (fieldCount == 1) {
+                    title = field.toString();
+                } else if (fieldCount == 2) {
+                    artist = field.toString();
+                } else if (fieldCount == 3 && c != ',') {
+                    duration = parseDuration();
+                }
+                if (c != ',') {
+                    break;
+                }
+                c = read();
+            }
+
+            if (fieldCount != 3) {
+                throw new IllegalArgumentException(
+                    "CSV格式错误：期望3个字段，实际得到 " + fieldCount + " 个字段"
+                );
+            }
+            return new Song(title, artist, duration);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+
+        private Song nextFromSequence() {
+            try {
+                return next();
+            } catch (IOException e) {
+                // 内存中的字符序列不会抛出 IOException
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * 读取一个字段到 field 缓冲区。
+         * @param c 字段的第一个字符
+         * @return 字段之后的分隔符：逗号、换行符或 EOF
+         */
+        private int readField(int c) throws IOException {
+            field.setLength(0);
+            while (isPadding(c)) {
+                c = read();
+            }
+
+            if (c == '"') {
+                while (true) {
+                    c = read();
+                    if (c == EOF) {
+                        throw new IllegalArgumentException("CSV格式错误：引号没有闭合");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break; // 闭合引号
+                        }
+                    }
+                    field.append((char) c);
+                }
+                while (isPadding(c)) {
+                    c = read();
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    throw new IllegalArgumentException("CSV格式错误：闭合引号后出现了多余的字符");
+                }
+                return c;
+            }
+
+            while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                field.append((char) c);
+                c = read();
+            }
+            int length = field.length();
+            while (length > 0 && isPadding(field.charAt(length - 1))) {
+                length--;
+            }
+            field.setLength(length);
+            return c;
+        }
+
+        private int parseDuration() {
+            try {
+                // 直接从缓冲区解析，不需要先创建 String
+                return Integer.parseInt(field, 0, field.length(), 10);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                    "CSV格式错误：时长必须是数字，得到的是 '" + field + "'"
+                );
+            }
+        }
+
+        private int read() throws IOException {
+            if (in == null) {
+                return position < limit ? source.charAt(position++) : EOF;
+            }
+            if (position == limit) {
+                int count = in.read(buffer, 0, buffer.length);
+                if (count <= 0) {
+                    return EOF;
+                }
+                position = 0;
+                limit = count;
+            }
+            return buffer[position++];
+        }
+    }
+}
@@ -2,6 +2,7 @@ plugins {
     id("java")
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     application
 }
 
@@ -16,6 +17,7 @@ java {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
     testImplementation(libs.spring.boot.starter.test)
 }
 
@@ -29,4 +31,20 @@ testing {
             useJUnitJupiter()
         }
     }
+}
+
+// 性能基准测试：./gradlew jmh，结果以JSON格式写到 build/reports/jmh/results.json，便于在版本之间对比
+jmh {
+    jmhVersion = libs.versions.jmh
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
+// 堆内存占用测量：./gradlew heapFootprint，结果写到 build/reports/jmh/heap-footprint.json
+tasks.register<JavaExec>("heapFootprint") {
+    group = "benchmark"
+    description = "Measures retained heap of parsed songs with and without string interning."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "com.vibevault.benchmark.SongHeapFootprint"
+    args(layout.buildDirectory.file("reports/jmh/heap-footprint.json").get().asFile.path)
 }
\ No newline at end of file
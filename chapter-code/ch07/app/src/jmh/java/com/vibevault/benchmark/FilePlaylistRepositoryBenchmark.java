@@ -0,0 +1,80 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.repository.FilePlaylistRepository;
+import com.vibevault.repository.WalSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FilePlaylistRepository 保存和加载整个播放列表的耗时，分别测量 lines 和 mmap 两种加载方式。
+ * 数据写在每次测量单独创建的临时目录中，测量结束后整个目录删除，不会碰到应用的 data 目录。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilePlaylistRepositoryBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    private int songCount;
+
+    @Param({"lines", "mmap"})
+    private String loadMode;
+
+    private Path dataDirectory;
+    private FilePlaylistRepository repository;
+    private Playlist playlist;
+    private String playlistId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("vibevault-jmh-");
+        repository = new FilePlaylistRepository(dataDirectory, loadMode, WalSettings.disabled(), new SimpleMeterRegistry());
+        playlistId = "jmh-" + songCount + "-" + loadMode;
+        playlist = Fixtures.playlist(playlistId, songCount, 500);
+        repository.save(playlist);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            // 先删文件再删目录
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        repository.save(playlist);
+    }
+
+    @Benchmark
+    public Optional<Playlist> load() {
+        return repository.load(playlistId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+
+/**
+ * 基准测试共用的测试数据。
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * 生成一个播放列表，艺术家在 distinctArtists 个名字中循环，模拟真实曲库中大量重复的艺术家。
+     */
+    static Playlist playlist(String name, int songCount, int distinctArtists) {
+        Playlist playlist = new Playlist(name);
+        for (int i = 0; i < songCount; i++) {
+            playlist.addSong(new Song("Song " + i, "Artist " + (i % distinctArtists), 120 + i % 300));
+        }
+        return playlist;
+    }
+
+    static String[] csvLines(int songCount, int distinctArtists) {
+        String[] lines = new String[songCount];
+        for (int i = 0; i < songCount; i++) {
+            lines[i] = "Song " + (i % (distinctArtists * 4)) + ",Artist " + (i % distinctArtists) + "," + (120 + i % 300);
+        }
+        return lines;
+    }
+}
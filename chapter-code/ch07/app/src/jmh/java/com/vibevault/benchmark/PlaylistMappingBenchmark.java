@@ -0,0 +1,59 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.dto.PlaylistDTO;
+import com.vibevault.model.Playlist;
+import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.service.PlaylistServiceImpl;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PlaylistServiceImpl.getPlaylistById 中把领域模型转换为 PlaylistDTO 的耗时。
+ * 仓库直接返回内存中的播放列表，测量结果只包含DTO映射本身。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaylistMappingBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    private int songCount;
+
+    private PlaylistServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Playlist playlist = Fixtures.playlist("jmh-mapping", songCount, 500);
+        PlaylistRepository inMemory = new PlaylistRepository() {
+            @Override
+            public void save(Playlist ignored) {
+            }
+
+            @Override
+            public Optional<Playlist> load(String playlistId) {
+                return Optional.of(playlist);
+            }
+        };
+        service = new PlaylistServiceImpl(inMemory);
+    }
+
+    @Benchmark
+    public PlaylistDTO mapToDto() {
+        return service.getPlaylistById("jmh-mapping");
+    }
+}
@@ -0,0 +1,38 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.model.Song;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Song 单行CSV序列化/反序列化的耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SongCsvBenchmark {
+
+    private final Song song = new Song("Bohemian Rhapsody", "Queen", 355);
+    private final String csvLine = "Bohemian Rhapsody,Queen,355";
+
+    @Benchmark
+    public String toCsvString() {
+        return song.toCsvString();
+    }
+
+    @Benchmark
+    public Song fromCsvString() {
+        return Song.fromCsvString(csvLine);
+    }
+}
@@ -0,0 +1,80 @@
+package com.vibevault.benchmark;
+
+import com.vibevault.model.Song;
+import com.vibevault.model.StringInterner;
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 测量解析后的歌曲在堆上实际占用的内存（GC之后的已用堆增量）。
+ *
+ * 两次都用 Song.fromCsvString 把同样的数据解析成 Song，唯一的区别是 StringInterner 是否开启：
+ * - uninterned：关闭去重，标题和艺术家每行都是一份新的字符串；
+ * - interned：开启去重，相同的标题和艺术家共享一个实例（包括去重表本身占用的内存）。
+ *
+ * 运行：./gradlew :app:heapFootprint，结果以JSON格式写入 build/reports/jmh/heap-footprint.json，
+ * 与 JMH 的 results.json 放在一起，便于在版本之间对比。直接运行 main 时可以用第一个参数指定输出文件。
+ */
+public final class SongHeapFootprint {
+
+    private static final int SONG_COUNT = 1_000_000;
+    private static final int DISTINCT_ARTISTS = 500;
+    private static final String DEFAULT_OUTPUT = "build/reports/jmh/heap-footprint.json";
+
+    private SongHeapFootprint() {
+        // 只提供 main 方法
+    }
+
+    public static void main(String[] args) throws IOException {
+        String[] lines = Fixtures.csvLines(SONG_COUNT, DISTINCT_ARTISTS);
+
+        // 先测关闭去重的情况，这时去重表还是空的，不会把表里的字符串算进任何一边
+        StringInterner.setEnabled(false);
+        long uninternedBytes;
+        try {
+            uninternedBytes = retainedBytes(() -> parseAll(lines));
+        } finally {
+            StringInterner.setEnabled(true);
+        }
+        long internedBytes = retainedBytes(() -> parseAll(lines));
+
+        String json = String.format(
+            "{\"songCount\":%d,\"distinctArtists\":%d,\"uninternedBytes\":%d,\"internedBytes\":%d}%n",
+            SONG_COUNT, DISTINCT_ARTISTS, uninternedBytes, internedBytes);
+        Path output = Paths.get(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+        System.out.println("结果已写入 " + output.toAbsolutePath());
+    }
+
+    private static List<Song> parseAll(String[] lines) {
+        List<Song> songs = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            songs.add(Song.fromCsvString(line));
+        }
+        return songs;
+    }
+
+    private static long retainedBytes(Supplier<Object> allocation) {
+        long before = usedHeapAfterGc();
+        Object retained = allocation.get();
+        long after = usedHeapAfterGc();
+        // 保证第二次测量时 retained 还没有被回收
+        Reference.reachabilityFence(retained);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -2,13 +2,31 @@ package com.vibevault.model;
 
 public record Song(String title, String artist, int durationInSeconds) {
 
+    /**
+     * 紧凑构造函数：所有创建Song的途径（CSV解析、日志重放、二进制快照、DTO转换）都会经过这里，
+     * 标题和艺术家在这里统一去重，内存中大量重复的字符串只保留一份。
+     * （去重可以关闭，见 {@link StringInterner}。）
+     */
+    public Song {
+        title = StringInterner.intern(title);
+        artist = StringInterner.intern(artist);
+    }
+
     /**
      * 将Song对象序列化为CSV格式的字符串。
      * 例如: "Bohemian Rhapsody,Queen,355"
+     * 标题或艺术家中包含逗号、双引号时会用双引号包裹，规则见 {@link SongCsvCodec}。
+     *
+     * 快照文件、追加日志和内存映射加载都按物理行切分记录，所以这里的一首歌必须正好占一行：
+     * 包含换行符的标题或艺术家会被拒绝，而不是写出一条会把文件切坏的记录。
      * @return CSV格式的字符串
+     * @throws IllegalArgumentException 如果标题或艺术家包含换行符
      */
     public String toCsvString() {
-        return String.format("%s,%s,%d", title, artist, durationInSeconds);
+        if (!fitsOnOneLine(title) || !fitsOnOneLine(artist)) {
+            throw new IllegalArgumentException("标题和艺术家不能包含换行符：" + title + " / " + artist);
+        }
+        return SongCsvCodec.toCsv(this);
     }
 
     /**
@@ -16,13 +34,18 @@ public record Song(String title, String artist, int durationInSeconds) {
      * 这是一个静态工厂方法。
      * @param csvLine CSV格式的一行文本
      * @return 一个新的Song对象
+     * @throws IllegalArgumentException 如果CSV格式不正确（字段数量不对、引号没有闭合或时长不是数字）
      */
     public static Song fromCsvString(String csvLine) {
-        String[] fields = csvLine.split(",");
-        // 这里我们假设CSV格式总是正确的，后续会讨论异常处理
-        String title = fields[0];
-        String artist = fields[1];
-        int duration = Integer.parseInt(fields[2]);
-        return new Song(title, artist, duration);
+        return SongCsvCodec.parse(csvLine);
+    }
+
+    /**
+     * 判断一个标题或艺术家能否写进一行CSV记录。
+     * @param value 标题或艺术家，可以为 null
+     * @return 不包含 '\n' 和 '\r' 时返回 true
+     */
+    public static boolean fitsOnOneLine(String value) {
+        return value == null || (value.indexOf('\n') < 0 && value.indexOf('\r') < 0);
     }
-}
\ No newline at end of file
+}
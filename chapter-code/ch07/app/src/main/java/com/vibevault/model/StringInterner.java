@@ -0,0 +1,53 @@
+package com.vibevault.model;
+
+/**
+ * 歌曲标题和艺术家名的共享字符串字典。
+ *
+ * 成千上万个播放列表里，"Queen" 这样的艺术家名会在每一首歌里各存一份。
+ * 这里用一个固定大小、直接映射的表来去重：相同内容的字符串在表中命中时，返回表里的那一个实例，
+ * 新创建的副本很快就会被GC回收。表的大小固定，冲突时新字符串直接覆盖旧的，所以内存占用有上限，
+ * 也不会像 String.intern() 那样把字符串永久留在JVM的字符串常量池里。
+ *
+ * 不需要加锁：String 是不可变对象，多线程之间读到旧值或新值都是正确的，最多少去重一次。
+ *
+ * 曲库里重复很少时，查表只是额外的开销，可以用JVM参数 -Dvibevault.intern-strings=false 关闭，
+ * 这时 {@link #intern(String)} 原样返回参数。
+ */
+public final class StringInterner {
+
+    private static final int TABLE_SIZE = 1 << 16; // 必须是2的幂
+    private static final String[] TABLE = new String[TABLE_SIZE];
+
+    private static volatile boolean enabled =
+        Boolean.parseBoolean(System.getProperty("vibevault.intern-strings", "true"));
+
+    private StringInterner() {
+        // 工具类，不需要实例化
+    }
+
+    /**
+     * 返回与 value 内容相同的共享实例。
+     * @param value 要去重的字符串，可以为 null
+     * @return 共享实例；如果表中还没有，返回 value 本身并把它放进表中
+     */
+    public static String intern(String value) {
+        if (value == null || !enabled) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & (TABLE_SIZE - 1);
+        String cached = TABLE[index];
+        if (cached != null && cached.equals(value)) {
+            return cached;
+        }
+        TABLE[index] = value;
+        return value;
+    }
+
+    /**
+     * 运行时打开或关闭去重，主要供基准测试在同一个JVM中对比两种情况；已经去重过的字符串不受影响。
+     */
+    public static void setEnabled(boolean enabled) {
+        StringInterner.enabled = enabled;
+    }
+}
@@ -0,0 +1,234 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 播放列表的紧凑二进制列式快照格式（.vvp 文件）。
+ *
+ * 文件布局（所有整数均为大端序）：
+ * <pre>
+ * 头部（24字节）：
+ *   int   magic          固定为 "VVPL"
+ *   short version        格式版本，目前为 1
+ *   short reserved       保留，写 0
+ *   int   songCount      歌曲数量
+ *   int   stringCount    字符串表中的字符串数量
+ *   int   payloadLength  头部之后的数据长度
+ *   int   checksum       数据部分的 CRC32
+ * 数据：
+ *   字符串表：stringCount 个 [int 字节长度][UTF-8 字节]，标题和艺术家去重后只存一次；
+ *             长度为 -1 表示 null（没有后续字节）
+ *   标题列：  songCount 个字符串表下标
+ *   艺术家列：songCount 个字符串表下标
+ *   时长列：  songCount 个时长
+ * </pre>
+ * 每一列开头有 1 个字节记录这一列每个值占用的字节数（1、2 或 4），按列中的最大值选择最小的宽度。
+ * 加载时只需一次读取整个文件，不需要任何字符串切分和整数文本解析。
+ */
+final class BinaryPlaylistCodec {
+
+    static final String FILE_SUFFIX = ".vvp";
+    static final int MAGIC = 0x5656504C; // "VVPL"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    // 字符串表中表示 null 的长度。版本 1 的文件从来不会写出负数长度，所以不需要升级版本号
+    private static final int NULL_STRING_LENGTH = -1;
+
+    private BinaryPlaylistCodec() {
+        // 工具类，不需要实例化
+    }
+
+    static byte[] encode(Playlist playlist) {
+        List<Song> songs = playlist.getSongs();
+        int songCount = songs.size();
+
+        // 1. 建立字典：每个不同的字符串只分配一个下标
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] titles = new int[songCount];
+        int[] artists = new int[songCount];
+        int[] durations = new int[songCount];
+        int stringBytes = 0;
+        for (int i = 0; i < songCount; i++) {
+            Song song = songs.get(i);
+            for (String value : new String[] {song.title(), song.artist()}) {
+                if (!dictionary.containsKey(value)) {
+                    byte[] encoded = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+                    dictionary.put(value, strings.size());
+                    strings.add(encoded);
+                    stringBytes += Integer.BYTES + (encoded == null ? 0 : encoded.length);
+                }
+            }
+            titles[i] = dictionary.get(song.title());
+            artists[i] = dictionary.get(song.artist());
+            durations[i] = song.durationInSeconds();
+        }
+
+        // 2. 按布局写出数据部分
+        int titleWidth = widthFor(titles);
+        int artistWidth = widthFor(artists);
+        int durationWidth = widthFor(durations);
+        int payloadLength = stringBytes
+            + 1 + titleWidth * songCount
+            + 1 + artistWidth * songCount
+            + 1 + durationWidth * songCount;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadLength);
+        buffer.position(HEADER_SIZE);
+        for (byte[] encoded : strings) {
+            if (encoded == null) {
+                buffer.putInt(NULL_STRING_LENGTH);
+            } else {
+                buffer.putInt(encoded.length);
+                buffer.put(encoded);
+            }
+        }
+        writeColumn(buffer, titles, titleWidth);
+        writeColumn(buffer, artists, artistWidth);
+        writeColumn(buffer, durations, durationWidth);
+
+        // 3. 最后回填头部，校验和覆盖整个数据部分
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, payloadLength);
+        buffer.position(0);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(songCount);
+        buffer.putInt(strings.size());
+        buffer.putInt(payloadLength);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * 除了魔数、版本和校验和，还会检查数据部分的每个计数、长度和字典下标，
+     * 损坏的文件总是以 IOException 报告，而不会抛出数组越界之类的运行时异常。
+     * @throws IOException 如果文件不是这个格式、版本不支持、校验和不匹配或者内容不一致
+     */
+    static Playlist decode(String playlistId, byte[] bytes) throws IOException {
+        if (bytes.length < HEADER_SIZE) {
+            throw new IOException("Binary playlist is truncated");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a binary playlist file");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary playlist version: " + version);
+        }
+        buffer.getShort(); // reserved
+        int songCount = buffer.getInt();
+        int stringCount = buffer.getInt();
+        int payloadLength = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (payloadLength != bytes.length - HEADER_SIZE) {
+            throw new IOException("Binary playlist is truncated");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_SIZE, payloadLength);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Binary playlist checksum mismatch");
+        }
+
+        // 每个字符串至少占 4 字节的长度，每首歌在三列中至少各占 1 字节：先检查计数，避免按损坏的计数分配巨大的数组
+        if (stringCount < 0 || stringCount > payloadLength / Integer.BYTES) {
+            throw new IOException("Invalid string count: " + stringCount);
+        }
+        if (songCount < 0 || songCount > payloadLength / 3) {
+            throw new IOException("Invalid song count: " + songCount);
+        }
+
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            if (buffer.remaining() < Integer.BYTES) {
+                throw new IOException("Binary playlist is truncated");
+            }
+            int length = buffer.getInt();
+            if (length == NULL_STRING_LENGTH) {
+                continue;
+            }
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Invalid string length: " + length);
+            }
+            strings[i] = new String(bytes, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        int[] titles = readColumn(buffer, songCount);
+        int[] artists = readColumn(buffer, songCount);
+        int[] durations = readColumn(buffer, songCount);
+        if (buffer.hasRemaining()) {
+            throw new IOException("Binary playlist has " + buffer.remaining() + " unexpected trailing bytes");
+        }
+
+        Playlist playlist = new Playlist(playlistId);
+        for (int i = 0; i < songCount; i++) {
+            String title = strings[checkIndex(titles[i], stringCount)];
+            String artist = strings[checkIndex(artists[i], stringCount)];
+            playlist.addSong(new Song(title, artist, durations[i]));
+        }
+        return playlist;
+    }
+
+    private static int checkIndex(int index, int stringCount) throws IOException {
+        if (index < 0 || index >= stringCount) {
+            throw new IOException("Invalid string index: " + index + " (string table has " + stringCount + " entries)");
+        }
+        return index;
+    }
+
+    private static int widthFor(int[] values) {
+        int width = 1;
+        for (int value : values) {
+            if (value < 0 || value > 0xFFFF) {
+                return 4;
+            }
+            if (value > 0xFF) {
+                width = 2;
+            }
+        }
+        return width;
+    }
+
+    private static void writeColumn(ByteBuffer buffer, int[] values, int width) {
+        buffer.put((byte) width);
+        for (int value : values) {
+            switch (width) {
+                case 1 -> buffer.put((byte) value);
+                case 2 -> buffer.putShort((short) value);
+                default -> buffer.putInt(value);
+            }
+        }
+    }
+
+    private static int[] readColumn(ByteBuffer buffer, int count) throws IOException {
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Binary playlist is truncated");
+        }
+        int width = buffer.get();
+        if (width != 1 && width != 2 && width != 4) {
+            throw new IOException("Invalid column width: " + width);
+        }
+        if ((long) width * count > buffer.remaining()) {
+            throw new IOException("Binary playlist is truncated");
+        }
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = switch (width) {
+                case 1 -> Byte.toUnsignedInt(buffer.get());
+                case 2 -> Short.toUnsignedInt(buffer.getShort());
+                default -> buffer.getInt();
+            };
+        }
+        return values;
+    }
+}
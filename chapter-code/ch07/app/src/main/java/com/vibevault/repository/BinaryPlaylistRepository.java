@@ -0,0 +1,102 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 以二进制列式快照（见 {@link BinaryPlaylistCodec}）保存播放列表的仓库，
+ * 通过 vibevault.repository.format=binary 开启，用来代替 CSV 格式的 FilePlaylistRepository。
+ *
+ * 如果某个播放列表还没有 .vvp 文件、但有旧的 .csv 文件，第一次加载时会自动把它转换过来，
+ * 开启过追加日志（wal）时，日志中还没有压缩进 CSV 的增删操作也会一起转换。
+ * 也可以用 {@link CsvToBinaryConverter} 一次性转换整个数据目录。
+ */
+@Repository
+@Qualifier(FilePlaylistRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(name = "vibevault.repository.format", havingValue = "binary")
+public class BinaryPlaylistRepository implements PlaylistRepository {
+    private final Path dataPath;
+
+    public BinaryPlaylistRepository(@Value("${vibevault.repository.data-directory:data}") Path dataPath) {
+        this.dataPath = dataPath;
+    }
+
+    @Override
+    public void save(Playlist playlist) {
+        try {
+            writeSnapshot(dataPath, playlist);
+        } catch (IOException e) {
+            throw new RuntimeException("Error saving playlist to " + binaryPath(playlist.getName()), e);
+        }
+    }
+
+    @Override
+    public Optional<Playlist> load(String playlistId) {
+        Path path = binaryPath(playlistId);
+        try {
+            if (Files.exists(path)) {
+                // 一次读入整个文件，再在内存中解码
+                return Optional.of(BinaryPlaylistCodec.decode(playlistId, Files.readAllBytes(path)));
+            }
+            if (Files.notExists(dataPath.resolve(playlistId + ".csv"))) {
+                return Optional.empty();
+            }
+            Playlist playlist = readCsv(dataPath, playlistId);
+            writeSnapshot(dataPath, playlist);
+            return Optional.of(playlist);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Error loading playlist from " + path, e);
+        }
+    }
+
+    /**
+     * 读取 CSV 快照，并重放还没有压缩进快照的操作日志（data/<id>.log），
+     * 得到的播放列表与 FilePlaylistRepository 加载的完全相同。原来的 .csv 和 .log 文件保持不变。
+     */
+    static Playlist readCsv(Path directory, String playlistId) throws IOException {
+        Playlist playlist = new Playlist(playlistId);
+        // 与 FilePlaylistRepository 的解析方式保持一致（包括不跳过空行），两种格式不会加载出不同的播放列表
+        for (String line : Files.readAllLines(directory.resolve(playlistId + ".csv"))) {
+            playlist.addSong(Song.fromCsvString(line));
+        }
+        PlaylistOperationLog.replayPending(directory, playlistId, playlist);
+        return playlist;
+    }
+
+    /**
+     * 先写临时文件并 fsync，再原子替换：崩溃时磁盘上要么是旧快照，要么是完整的新快照。
+     * @return 快照的字节数
+     */
+    static int writeSnapshot(Path directory, Playlist playlist) throws IOException {
+        Path path = directory.resolve(playlist.getName() + BinaryPlaylistCodec.FILE_SUFFIX);
+        Path tempPath = directory.resolve(playlist.getName() + BinaryPlaylistCodec.FILE_SUFFIX + ".tmp");
+        byte[] encoded = BinaryPlaylistCodec.encode(playlist);
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(encoded);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return encoded.length;
+    }
+
+    private Path binaryPath(String playlistId) {
+        return dataPath.resolve(playlistId + BinaryPlaylistCodec.FILE_SUFFIX);
+    }
+}
@@ -0,0 +1,253 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 放在磁盘仓库（FilePlaylistRepository 或 BinaryPlaylistRepository）前面的内存缓存（装饰器模式），
+ * 通过 vibevault.repository.cache.enabled=true 开启。
+ *
+ * - 读：命中时直接返回内存中已经解析好的播放列表，不再读取和解析CSV；
+ * - 写：只更新缓存并把条目标记为"脏"，由后台线程每隔 flushIntervalMillis 毫秒把脏条目写回磁盘（write-behind），
+ *   应用关闭时也会全部写回；
+ * - 容量：按歌曲数计算每个条目的大小，总数超过 maxSongs 时按 LRU 顺序淘汰干净的条目。
+ *   脏条目在写回之前不会被淘汰，否则读到的就是磁盘上的旧数据。
+ *   如果只剩下脏条目、缓存仍然超出容量（例如磁盘一直写失败），下一次写入会先在调用线程里同步写回；
+ *   写回失败时异常直接抛给调用方，新的修改不会进入缓存，所以缓存最多只比 maxSongs 多出正在写入的那几个播放列表。
+ *
+ * 注意：写回是异步的，进程崩溃时最近一个刷新间隔内的修改会丢失。
+ */
+@Repository
+@Primary // <--- 开启缓存时，Service 注入的是这个装饰器，而不是底层的文件仓库
+@ConditionalOnProperty(name = "vibevault.repository.cache.enabled", havingValue = "true")
+public class CachingPlaylistRepository implements PlaylistRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingPlaylistRepository.class);
+
+    private final PlaylistRepository delegate;
+    private final long maxSongs;
+    // accessOrder=true：每次 get 都会把条目移到末尾，最久未使用的条目总在最前面
+    private final LinkedHashMap<String, CacheEntry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // 正在从磁盘读取的播放列表（由 cache 锁保护）。读取期间只要这个播放列表被写入过，
+    // 读到的就可能是旧数据：新版本可能已经写回磁盘、标记为干净并被淘汰，光检查缓存里有没有这个条目是不够的
+    private final Map<String, PendingLoad> pendingLoads = new HashMap<>();
+    // 所有写回磁盘的操作都在这把锁里进行，保证同一个播放列表不会用旧版本覆盖新版本
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private long cachedSongs;
+
+    public CachingPlaylistRepository(
+            @Qualifier(FilePlaylistRepository.STORE_QUALIFIER) PlaylistRepository delegate,
+            @Value("${vibevault.repository.cache.max-songs:1000000}") long maxSongs,
+            @Value("${vibevault.repository.cache.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.delegate = delegate;
+        this.maxSongs = maxSongs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "playlist-cache-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 返回的是缓存中播放列表的副本，调用方可以放心修改它。
+     */
+    @Override
+    public Optional<Playlist> load(String playlistId) {
+        PendingLoad pending;
+        synchronized (cache) {
+            CacheEntry entry = cache.get(playlistId);
+            if (entry != null) {
+                return Optional.of(copyOf(entry.playlist));
+            }
+            pending = pendingLoads.computeIfAbsent(playlistId, id -> new PendingLoad());
+            pending.loaders++;
+        }
+        // 未命中：在锁外读取磁盘，避免阻塞其他播放列表的读取
+        Optional<Playlist> loaded = Optional.empty();
+        try {
+            loaded = delegate.load(playlistId);
+            return loaded;
+        } finally {
+            synchronized (cache) {
+                if (--pending.loaders == 0) {
+                    pendingLoads.remove(playlistId);
+                }
+                // 读盘期间有过写入时不放进缓存，下一次读取会重新加载
+                if (loaded.isPresent() && !pending.stale && !cache.containsKey(playlistId)) {
+                    put(playlistId, copyOf(loaded.get()), false);
+                }
+            }
+        }
+    }
+
+    /**
+     * 保存后调用方不应该再修改传入的 playlist 对象，它会直接成为缓存中的版本。
+     */
+    @Override
+    public void save(Playlist playlist) {
+        synchronized (cache) {
+            if (cachedSongs <= maxSongs) {
+                put(playlist.getName(), playlist, true);
+                return;
+            }
+        }
+        // 缓存已满而且淘汰不掉（只剩脏条目）：先同步写回腾出空间，给写入方施加背压。
+        // 写回失败时异常直接抛给调用方，这次修改不会进入缓存
+        flush();
+        synchronized (cache) {
+            put(playlist.getName(), playlist, true);
+        }
+    }
+
+    @Override
+    public void saveSongAdded(Playlist playlist, Song song) {
+        save(playlist);
+    }
+
+    @Override
+    public void saveSongRemoved(Playlist playlist, int songIndex) {
+        save(playlist);
+    }
+
+    /**
+     * 把所有脏条目写回磁盘。
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<CacheEntry> dirtyEntries = new ArrayList<>();
+            synchronized (cache) {
+                for (CacheEntry entry : cache.values()) {
+                    if (entry.dirty) {
+                        dirtyEntries.add(new CacheEntry(entry.playlist, entry.version));
+                    }
+                }
+            }
+            for (CacheEntry snapshot : dirtyEntries) {
+                delegate.save(snapshot.playlist);
+                synchronized (cache) {
+                    CacheEntry current = cache.get(snapshot.playlist.getName());
+                    // 写回期间又被修改过的条目保持为脏，下一轮再写
+                    if (current != null && current.version == snapshot.version) {
+                        current.dirty = false;
+                    }
+                }
+            }
+            synchronized (cache) {
+                evictIfNeeded();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // 当前缓存的歌曲总数，供测试检查容量上限
+    long cachedSongs() {
+        synchronized (cache) {
+            return cachedSongs;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // 不能让异常终止定时任务，脏条目会在下一轮重试
+            logger.error("播放列表缓存写回失败，将在下一轮重试", e);
+        }
+    }
+
+    // 调用方必须持有 cache 锁
+    private void put(String playlistId, Playlist playlist, boolean dirty) {
+        CacheEntry previous = cache.get(playlistId);
+        long version = 0;
+        if (previous != null) {
+            cachedSongs -= previous.weight();
+            version = previous.version + 1;
+        }
+        CacheEntry entry = new CacheEntry(playlist, version);
+        entry.dirty = dirty;
+        if (dirty) {
+            PendingLoad pending = pendingLoads.get(playlistId);
+            if (pending != null) {
+                pending.stale = true;
+            }
+        }
+        cache.put(playlistId, entry);
+        cachedSongs += entry.weight();
+        evictIfNeeded();
+    }
+
+    // 调用方必须持有 cache 锁
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, CacheEntry>> iterator = cache.entrySet().iterator();
+        while (cachedSongs > maxSongs && iterator.hasNext()) {
+            CacheEntry eldest = iterator.next().getValue();
+            if (!eldest.dirty) {
+                iterator.remove();
+                cachedSongs -= eldest.weight();
+            }
+        }
+    }
+
+    private static Playlist copyOf(Playlist playlist) {
+        Playlist copy = new Playlist(playlist.getName());
+        for (Song song : playlist.getSongs()) {
+            copy.addSong(song);
+        }
+        return copy;
+    }
+
+    private static final class PendingLoad {
+        private int loaders;
+        private boolean stale;
+    }
+
+    private static final class CacheEntry {
+        private final Playlist playlist;
+        private final long version;
+        private boolean dirty;
+
+        private CacheEntry(Playlist playlist, long version) {
+            this.playlist = playlist;
+            this.version = version;
+        }
+
+        // 按歌曲数计算大小，空播放列表也占 1
+        private long weight() {
+            return playlist.getSongCount() + 1L;
+        }
+    }
+}
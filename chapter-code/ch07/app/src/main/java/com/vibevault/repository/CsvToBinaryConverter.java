@@ -0,0 +1,40 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 把 data 目录（或命令行指定的目录）中所有的 .csv 播放列表转换成 .vvp 二进制快照。
+ * 开启过追加日志时，data/<id>.log 中的增删操作会先重放再转换；上一次日志压缩中途崩溃的播放列表会拒绝转换。
+ * 原来的 .csv 和 .log 文件会保留，确认无误后可以手动删除。
+ * 请在应用停止时运行，否则转换期间新追加的日志记录不会包含在快照中。
+ *
+ * 用法：java -cp app.jar com.vibevault.repository.CsvToBinaryConverter [目录]
+ */
+public final class CsvToBinaryConverter {
+
+    private CsvToBinaryConverter() {
+        // 只提供 main 方法
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "data");
+        List<Path> csvFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            csvFiles = files.filter(path -> path.getFileName().toString().endsWith(".csv")).toList();
+        }
+        for (Path csvFile : csvFiles) {
+            String fileName = csvFile.getFileName().toString();
+            String playlistId = fileName.substring(0, fileName.length() - ".csv".length());
+            Playlist playlist = BinaryPlaylistRepository.readCsv(directory, playlistId);
+            int encodedLength = BinaryPlaylistRepository.writeSnapshot(directory, playlist);
+            System.out.println("✅ " + fileName + " -> " + playlistId + BinaryPlaylistCodec.FILE_SUFFIX
+                + "（" + Files.size(csvFile) + " 字节 -> " + encodedLength + " 字节）");
+        }
+    }
+}
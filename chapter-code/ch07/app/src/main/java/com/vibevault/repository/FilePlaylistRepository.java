@@ -3,43 +3,220 @@ package com.vibevault.repository;
 import com.vibevault.model.Playlist;
 import com.vibevault.model.Song;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.channels.FileChannel;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Repository;
 
 @Repository // <--- 添加标签
+@Qualifier(FilePlaylistRepository.STORE_QUALIFIER)
+@ConditionalOnProperty(name = "vibevault.repository.format", havingValue = "csv", matchIfMissing = true)
+@EnableConfigurationProperties(WalSettings.class)
 public class FilePlaylistRepository implements PlaylistRepository {
-    private static final String DATA_DIRECTORY = "data";
-    private static final Path DATA_PATH = Paths.get(DATA_DIRECTORY);
+    // 真正读写磁盘的仓库（CSV 或二进制格式）都带有这个限定符，缓存装饰器通过它找到底层仓库
+    public static final String STORE_QUALIFIER = "playlistStore";
+
+    private static final String TEMP_SNAPSHOT_SUFFIX = ".csv.tmp";
+    // Windows 不能打开目录来 fsync，NTFS 的 rename 本身就记录在文件系统日志中
+    private static final boolean DIRECTORY_FSYNC_SUPPORTED =
+        !System.getProperty("os.name").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    // 加载方式："lines" 用 Files.readAllLines 一次读入所有行；
+    // "mmap" 用内存映射按窗口解析，适合几百MB的大播放列表
+    static final String LOAD_MODE_LINES = "lines";
+    static final String LOAD_MODE_MMAP = "mmap";
+
+    // 快照和日志所在的目录，默认是工作目录下的 data
+    private final Path dataPath;
+    private final MappedPlaylistLoader mappedLoader;
+    // 开启追加日志后，单首歌的增删只追加一条记录，不再重写整个CSV；未开启时为 null
+    private final PlaylistOperationLog operationLog;
+    // 开启组提交后，并发请求的日志 fsync 会被合并成一批；未开启时为 null
+    private final GroupCommitter groupCommitter;
+    // 开启追加日志时，按顺序缓存删除过歌曲的播放列表当前的歌曲标题（每首歌只是一个字符串引用），
+    // 之后按标题删除歌曲时直接在这里找到索引，不需要重新读取快照和重放日志；未开启时为 null。
+    // 同一个播放列表的写操作由调用方串行化，所以列表本身不需要加锁
+    private final Map<String, List<String>> songTitles;
+
+    public FilePlaylistRepository(
+            @Value("${vibevault.repository.data-directory:data}") Path dataPath,
+            @Value("${vibevault.repository.load-mode:lines}") String loadMode,
+            WalSettings wal,
+            MeterRegistry meterRegistry) {
+        this.dataPath = dataPath;
+        if (LOAD_MODE_MMAP.equalsIgnoreCase(loadMode)) {
+            this.mappedLoader = new MappedPlaylistLoader();
+        } else if (LOAD_MODE_LINES.equalsIgnoreCase(loadMode)) {
+            this.mappedLoader = null;
+        } else {
+            throw new IllegalArgumentException("Unknown vibevault.repository.load-mode: " + loadMode);
+        }
+        this.groupCommitter = wal.enabled() && wal.groupCommit().enabled()
+            ? new GroupCommitter(wal.groupCommit().windowMs(), wal.groupCommit().maxBatchSize(), meterRegistry)
+            : null;
+        this.operationLog = wal.enabled()
+            ? new PlaylistOperationLog(dataPath, wal.fsyncBatchSize(), wal.compactThreshold(), groupCommitter)
+            : null;
+        this.songTitles = wal.enabled() ? new ConcurrentHashMap<>() : null;
+        if (operationLog != null) {
+            recoverInterruptedCompactions();
+        }
+    }
 
     @Override
     public void save(Playlist playlist) {
         // 让文件名与播放列表的ID动态关联
-        Path path = DATA_PATH.resolve(playlist.getName() + ".csv");
-        
+        Path path = snapshotPath(playlist.getName());
+        Path tempPath = tempSnapshotPath(playlist.getName());
+
         // 使用Stream API，代码更简洁
         List<String> csvLines = playlist.getSongs().stream()
             .map(Song::toCsvString)
             .toList();
 
         try {
-            // 确保 "data" 目录存在
-            if (Files.notExists(DATA_PATH)) {
-                 Files.createDirectories(DATA_PATH);
+            // 确保数据目录存在
+            if (Files.notExists(dataPath)) {
+                 Files.createDirectories(dataPath);
+            }
+            // 先写临时文件再原子替换，崩溃时不会留下写了一半的快照
+            Files.write(tempPath, csvLines);
+            if (operationLog != null) {
+                // 快照会取代日志，所以它本身必须先落盘
+                try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                operationLog.retire(playlist.getName());
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (operationLog != null) {
+                // 两次 rename 都要等目录落盘才算完成，否则崩溃后目录里可能仍是旧快照，而旧日志已经删除了
+                forceDataDirectory();
+                operationLog.deleteRetired(playlist.getName());
+                songTitles.replace(playlist.getName(), titlesOf(playlist));
             }
-            Files.write(path, csvLines);
         } catch (IOException e) {
             // 抛出运行时异常，让错误在更高层级被处理
             throw new RuntimeException("Error saving playlist to " + path, e);
         }
     }
 
+    @Override
+    public void saveSongAdded(Playlist playlist, Song song) {
+        if (operationLog == null) {
+            save(playlist);
+            return;
+        }
+        try {
+            if (operationLog.appendAdd(playlist.getName(), song)) {
+                save(playlist); // 日志太长了，压缩回快照
+            } else {
+                songTitles.replace(playlist.getName(), titlesOf(playlist));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to log of playlist " + playlist.getName(), e);
+        }
+    }
+
+    @Override
+    public void saveSongRemoved(Playlist playlist, int songIndex) {
+        if (operationLog == null) {
+            save(playlist);
+            return;
+        }
+        try {
+            if (operationLog.appendRemove(playlist.getName(), songIndex)) {
+                save(playlist); // 日志太长了，压缩回快照
+            } else {
+                songTitles.replace(playlist.getName(), titlesOf(playlist));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to log of playlist " + playlist.getName(), e);
+        }
+    }
+
+    /**
+     * 开启追加日志时只检查快照是否存在并追加一条记录，不读取快照、不重放日志；
+     * 只有日志达到压缩阈值时才加载一次整个播放列表。
+     */
+    @Override
+    public boolean appendSong(String playlistId, Song song) {
+        if (operationLog == null) {
+            return PlaylistRepository.super.appendSong(playlistId, song);
+        }
+        if (Files.notExists(snapshotPath(playlistId))) {
+            return false;
+        }
+        try {
+            boolean compact = operationLog.appendAdd(playlistId, song);
+            List<String> titles = songTitles.get(playlistId);
+            if (titles != null) {
+                titles.add(song.title());
+            }
+            if (compact) {
+                compact(playlistId);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to log of playlist " + playlistId, e);
+        }
+        return true;
+    }
+
+    /**
+     * 开启追加日志时，第一次删除会加载一次播放列表并缓存它的歌曲标题，
+     * 之后的删除只在缓存中查找索引并追加一条记录。
+     */
+    @Override
+    public RemoveResult removeSongByTitle(String playlistId, String title) {
+        if (operationLog == null) {
+            return PlaylistRepository.super.removeSongByTitle(playlistId, title);
+        }
+        List<String> titles = songTitles.get(playlistId);
+        if (titles == null) {
+            Optional<Playlist> playlist = load(playlistId);
+            if (playlist.isEmpty()) {
+                return RemoveResult.PLAYLIST_NOT_FOUND;
+            }
+            titles = titlesOf(playlist.get());
+            songTitles.put(playlistId, titles);
+        } else if (Files.notExists(snapshotPath(playlistId))) {
+            songTitles.remove(playlistId);
+            return RemoveResult.PLAYLIST_NOT_FOUND;
+        }
+        int index = titles.indexOf(title);
+        if (index < 0) {
+            return RemoveResult.SONG_NOT_FOUND;
+        }
+        try {
+            boolean compact = operationLog.appendRemove(playlistId, index);
+            titles.remove(index);
+            if (compact) {
+                compact(playlistId);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error appending to log of playlist " + playlistId, e);
+        }
+        return RemoveResult.REMOVED;
+    }
+
     @Override
     public Optional<Playlist> load(String playlistId) { // <--- 返回类型改为Optional<Playlist>
-        Path path = DATA_PATH.resolve(playlistId + ".csv");
+        Path path = snapshotPath(playlistId);
 
         if (Files.notExists(path)) {
             return Optional.empty(); // <--- 如果文件不存在，明确返回“空”
@@ -47,14 +224,98 @@ public class FilePlaylistRepository implements PlaylistRepository {
 
         Playlist playlist = new Playlist(playlistId);
         try {
-            List<String> csvLines = Files.readAllLines(path);
-            for (String line : csvLines) {
-                // 复用Song中的静态工厂方法，保持代码干净
-                playlist.addSong(Song.fromCsvString(line));
+            if (mappedLoader != null) {
+                // 直接从映射的字节中解析，不会把整个文件读成 List<String>
+                mappedLoader.load(path, playlist);
+            } else {
+                List<String> csvLines = Files.readAllLines(path);
+                for (String line : csvLines) {
+                    // 复用Song中的静态工厂方法，保持代码干净
+                    playlist.addSong(Song.fromCsvString(line));
+                }
+            }
+            if (operationLog != null) {
+                // 在快照之上重放快照之后发生的增删操作
+                operationLog.replay(playlistId, playlist);
             }
-        } catch (IOException | NumberFormatException e) {
+        } catch (IOException | IllegalArgumentException e) {
              throw new RuntimeException("Error loading playlist from " + path, e);
         }
         return Optional.of(playlist); // <--- 用Optional包装返回结果
     }
+
+    /**
+     * 应用关闭时把日志中尚未 fsync 的记录刷到磁盘。
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (groupCommitter != null) {
+            groupCommitter.close();
+        }
+        if (operationLog != null) {
+            operationLog.close();
+        }
+    }
+
+    // 日志太长了：加载快照并重放日志，再写回一份新快照
+    private void compact(String playlistId) {
+        Playlist playlist = load(playlistId)
+            .orElseThrow(() -> new IllegalStateException("Snapshot of playlist " + playlistId + " disappeared"));
+        save(playlist);
+    }
+
+    private void forceDataDirectory() throws IOException {
+        if (!DIRECTORY_FSYNC_SUPPORTED) {
+            return;
+        }
+        try (FileChannel directory = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    private static List<String> titlesOf(Playlist playlist) {
+        List<Song> songs = playlist.getSongs();
+        List<String> titles = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            titles.add(song.title());
+        }
+        return titles;
+    }
+
+    /**
+     * 启动时处理上一次压缩中途崩溃留下的 .csv.tmp 和 .log.old 文件。
+     */
+    private void recoverInterruptedCompactions() {
+        if (Files.notExists(dataPath)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dataPath)) {
+            for (Path file : files.toList()) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMP_SNAPSHOT_SUFFIX)) {
+                    recoverInterruptedCompaction(fileName.substring(0, fileName.length() - TEMP_SNAPSHOT_SUFFIX.length()));
+                } else if (fileName.endsWith(PlaylistOperationLog.RETIRED_LOG_SUFFIX)) {
+                    recoverInterruptedCompaction(fileName.substring(0, fileName.length() - PlaylistOperationLog.RETIRED_LOG_SUFFIX.length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error recovering playlists in " + dataPath, e);
+        }
+    }
+
+    private void recoverInterruptedCompaction(String playlistId) throws IOException {
+        Path tempPath = tempSnapshotPath(playlistId);
+        // 临时快照还在，说明它还没有替换旧快照
+        boolean snapshotReplaced = Files.notExists(tempPath);
+        operationLog.recover(playlistId, snapshotReplaced);
+        Files.deleteIfExists(tempPath);
+    }
+
+    private Path snapshotPath(String playlistId) {
+        return dataPath.resolve(playlistId + ".csv");
+    }
+
+    private Path tempSnapshotPath(String playlistId) {
+        return dataPath.resolve(playlistId + TEMP_SNAPSHOT_SUFFIX);
+    }
 }
@@ -0,0 +1,205 @@
+package com.vibevault.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 组提交（group commit）：把多个请求线程的 fsync 合并成一批来做。
+ *
+ * 每个调用方写完数据后调用 {@link #awaitDurable(FileChannel)}，把"请把这个文件刷到磁盘"的请求放进队列并等待。
+ * 后台的提交线程取出第一个请求后，最多再等待一个批处理窗口（或者攒够 maxBatchSize 个请求），
+ * 然后对这一批中的每个不同文件只调用一次 FileChannel.force，再一起唤醒所有调用方。
+ * 这样写吞吐量就不再受限于磁盘每秒能做多少次 fsync，而每个调用方返回时它的数据一定已经落盘。
+ */
+class GroupCommitter implements Closeable {
+
+    private final BlockingQueue<CommitRequest> queue = new LinkedBlockingQueue<>();
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSize;
+    private final Timer commitLatency;
+    private final Thread committerThread;
+    // 入队和关闭都在这把锁里进行：关闭之后不可能再有请求进入队列，队列里的每个请求都一定会被完成
+    private final Object enqueueLock = new Object();
+    private boolean closed;
+
+    GroupCommitter(long windowMillis, int maxBatchSize, MeterRegistry meterRegistry) {
+        if (windowMillis < 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("windowMillis must not be negative and maxBatchSize must be positive");
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.batchSize = DistributionSummary.builder("vibevault.wal.commit.batch.size")
+            .description("Number of writes made durable by one group commit")
+            .register(meterRegistry);
+        this.commitLatency = Timer.builder("vibevault.wal.commit.latency")
+            .description("Time from enqueuing a write until its batch is durable")
+            .register(meterRegistry);
+        this.committerThread = new Thread(this::runCommitLoop, "playlist-group-commit");
+        this.committerThread.setDaemon(true);
+        this.committerThread.start();
+    }
+
+    /**
+     * 等待写入 channel 的数据落盘。
+     * @throws IOException 如果这一批的 fsync 失败
+     */
+    void awaitDurable(FileChannel channel) throws IOException {
+        CommitRequest request = new CommitRequest(channel, System.nanoTime());
+        synchronized (enqueueLock) {
+            if (closed) {
+                throw new IOException("Group committer is closed");
+            }
+            queue.add(request);
+        }
+        try {
+            request.done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 提交队列中剩余的请求并停止后台线程。
+     */
+    @Override
+    public void close() {
+        synchronized (enqueueLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // 停止信号排在所有已入队的请求之后，提交线程会先把它们提交完再退出。
+            // 不用 interrupt：中断正在执行 FileChannel.force 的线程会把文件通道关掉
+            queue.add(SHUTDOWN);
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                committerThread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        failRemaining();
+    }
+
+    private void runCommitLoop() {
+        List<CommitRequest> batch = new ArrayList<>(maxBatchSize);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                CommitRequest first = queue.take();
+                if (first == SHUTDOWN) {
+                    break;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    CommitRequest next = remaining > 0
+                        ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == SHUTDOWN) {
+                        stopping = true;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 无论提交线程因为什么退出，都不再接受新的请求，并让还在等待的调用方立即失败，而不是永远阻塞
+            synchronized (enqueueLock) {
+                closed = true;
+            }
+            for (CommitRequest request : batch) {
+                request.done.completeExceptionally(new IOException("Group committer stopped"));
+            }
+            failRemaining();
+        }
+    }
+
+    private void failRemaining() {
+        List<CommitRequest> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (CommitRequest request : remaining) {
+            if (request != SHUTDOWN) {
+                request.done.completeExceptionally(new IOException("Group committer is closed"));
+            }
+        }
+    }
+
+    private void commit(List<CommitRequest> batch) {
+        // 同一个文件在这一批中只 fsync 一次
+        Map<FileChannel, IOException> results = new IdentityHashMap<>();
+        for (CommitRequest request : batch) {
+            if (!results.containsKey(request.channel)) {
+                results.put(request.channel, force(request.channel));
+            }
+        }
+        long now = System.nanoTime();
+        for (CommitRequest request : batch) {
+            IOException failure = results.get(request.channel);
+            if (failure == null) {
+                request.done.complete(null);
+            } else {
+                request.done.completeExceptionally(failure);
+            }
+            commitLatency.record(now - request.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.size());
+    }
+
+    private static IOException force(FileChannel channel) {
+        try {
+            channel.force(false);
+            return null;
+        } catch (ClosedChannelException e) {
+            // 文件在关闭前已经被 fsync 过（见 PlaylistOperationLog#closeLog）
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    private static final CommitRequest SHUTDOWN = new CommitRequest(null, 0);
+
+    private static final class CommitRequest {
+        private final FileChannel channel;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private CommitRequest(FileChannel channel, long enqueuedAt) {
+            this.channel = channel;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
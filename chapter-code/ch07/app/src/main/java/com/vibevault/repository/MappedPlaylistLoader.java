@@ -0,0 +1,145 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import com.vibevault.model.SongCsvCodec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 通过内存映射（FileChannel.map）读取播放列表CSV文件的加载器。
+ *
+ * Files.readAllLines 会先把每一行都变成 String 放进 List 再开始解析，
+ * 一个大文件大约要占用两倍于文件大小的堆内存。这里按固定大小的窗口依次映射文件，
+ * 把每一行解码到一个复用的 CharBuffer 中，再交给 {@link SongCsvCodec.SongReader} 解析，
+ * 不会为整行创建 String。同一时刻只映射一个窗口，所以内存占用与文件大小无关。
+ *
+ * 行的语法和 "lines" 模式完全一样：'\n'、"\r\n" 和单独的 '\r' 都是换行符（与 Files.readAllLines 相同），
+ * 文件末尾的换行符不会产生额外的空行，每一行都按 {@link Song#fromCsvString(String)} 的规则解析，
+ * 空行和字段数量不对的行在两种模式下都会被拒绝，UTF-8 编码错误在两种模式下都是 IOException。
+ */
+class MappedPlaylistLoader {
+
+    static final int DEFAULT_WINDOW_SIZE = 8 * 1024 * 1024;
+
+    private final int windowSize;
+
+    MappedPlaylistLoader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedPlaylistLoader(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * 把文件中的歌曲依次追加到播放列表中。
+     * @param path CSV文件路径
+     * @param playlist 要填充的播放列表
+     * @throws IOException 如果文件无法读取、不是合法的 UTF-8，或者某一行比映射窗口还长
+     * @throws IllegalArgumentException 如果某一行的格式不正确
+     */
+    void load(Path path, Playlist playlist) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            LineParser parser = new LineParser();
+            long windowStart = 0;
+            while (windowStart < size) {
+                long length = Math.min(windowSize, size - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+                boolean lastWindow = windowStart + length == size;
+                int consumed = parseWindow(window, lastWindow, playlist, parser);
+                if (consumed == 0) {
+                    throw new IOException("Line at offset " + windowStart + " is longer than the mapping window");
+                }
+                windowStart += consumed;
+            }
+        }
+    }
+
+    /**
+     * 解析一个窗口中的所有完整行。
+     * @return 已经消费的字节数；窗口末尾不完整的行会留给下一个窗口
+     */
+    private int parseWindow(ByteBuffer window, boolean lastWindow, Playlist playlist, LineParser parser)
+            throws IOException {
+        int limit = window.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = indexOfLineBreak(window, lineStart, limit);
+            int next;
+            if (lineEnd < 0) {
+                if (!lastWindow) {
+                    return lineStart;
+                }
+                lineEnd = limit;
+                next = limit;
+            } else if (window.get(lineEnd) == '\r' && lineEnd + 1 == limit && !lastWindow) {
+                // '\r' 正好是窗口的最后一个字节，要看到下一个字节才知道它是不是 "\r\n"
+                return lineStart;
+            } else if (window.get(lineEnd) == '\r' && lineEnd + 1 < limit && window.get(lineEnd + 1) == '\n') {
+                next = lineEnd + 2;
+            } else {
+                next = lineEnd + 1;
+            }
+            playlist.addSong(parser.parse(window, lineStart, lineEnd));
+            lineStart = next;
+        }
+        return limit;
+    }
+
+    private static int indexOfLineBreak(ByteBuffer window, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = window.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 把一行字节解码成字符再解析成歌曲，解码器、字符缓冲区和CSV读取器在各行之间复用。
+     */
+    private static final class LineParser {
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private final SongCsvCodec.SongReader reader = new SongCsvCodec.SongReader("");
+        private CharBuffer chars = CharBuffer.allocate(256);
+
+        Song parse(ByteBuffer window, int start, int end) throws CharacterCodingException {
+            int length = end - start;
+            if (length > chars.capacity()) {
+                // UTF-8 解码出的字符数不会超过字节数
+                chars = CharBuffer.allocate(length);
+            }
+            chars.clear();
+            decoder.reset();
+            ByteBuffer bytes = window.slice(start, length);
+            CoderResult result = decoder.decode(bytes, chars, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            result = decoder.flush(chars);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            chars.flip();
+            return reader.parseLine(chars);
+        }
+    }
+}
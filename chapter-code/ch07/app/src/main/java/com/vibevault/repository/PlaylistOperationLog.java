@@ -0,0 +1,223 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 每个播放列表一份的追加式操作日志（write-ahead log），保存在 data/<id>.log 中。
+ *
+ * 添加一首歌只需要在日志末尾追加一行 "A,<歌曲CSV>"，删除一首歌追加一行 "R,<索引>"，
+ * 而不是重写整个 CSV 快照。加载时先读快照，再按顺序重放日志。
+ * 歌曲CSV由 {@link Song#toCsvString()} 按 RFC 4180 编码，标题中的逗号和引号不会破坏记录；
+ * 包含换行符的歌曲在写入任何字节之前就会被拒绝，所以每条记录总是正好占一行。
+ * fsync 按批进行：每累积 fsyncBatchSize 条记录才调用一次 FileChannel.force；
+ * 如果配置了 {@link GroupCommitter}，则改为组提交，每次追加都会等到所在的那一批落盘后才返回。
+ * 当日志记录数达到 compactThreshold 时，由仓库把内存中的播放列表写回快照并丢弃日志（压缩）。
+ *
+ * 同一个播放列表的写操作需要由调用方串行化。
+ */
+class PlaylistOperationLog implements Closeable {
+
+    private static final String LOG_SUFFIX = ".log";
+    static final String RETIRED_LOG_SUFFIX = ".log.old";
+    private static final char ADD = 'A';
+    private static final char REMOVE = 'R';
+
+    private final Path directory;
+    private final int fsyncBatchSize;
+    private final int compactThreshold;
+    private final GroupCommitter groupCommitter;
+    private final Map<String, LogFile> openLogs = new ConcurrentHashMap<>();
+
+    PlaylistOperationLog(Path directory, int fsyncBatchSize, int compactThreshold, GroupCommitter groupCommitter) {
+        if (fsyncBatchSize <= 0 || compactThreshold <= 0) {
+            throw new IllegalArgumentException("fsyncBatchSize and compactThreshold must be positive");
+        }
+        this.directory = directory;
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.compactThreshold = compactThreshold;
+        this.groupCommitter = groupCommitter;
+    }
+
+    /**
+     * 追加一条"添加歌曲"记录。
+     * @return 如果日志已经足够长、应该压缩回快照，返回 true
+     * @throws IllegalArgumentException 如果标题或艺术家包含换行符，此时日志不会被修改
+     */
+    boolean appendAdd(String playlistId, Song song) throws IOException {
+        return append(playlistId, ADD + "," + song.toCsvString() + "\n");
+    }
+
+    /**
+     * 追加一条"删除歌曲"记录。
+     * @return 如果日志已经足够长、应该压缩回快照，返回 true
+     */
+    boolean appendRemove(String playlistId, int songIndex) throws IOException {
+        return append(playlistId, REMOVE + "," + songIndex + "\n");
+    }
+
+    /**
+     * 把日志中的操作按顺序重放到刚从快照加载的播放列表上。
+     * 崩溃时写了一半的最后一行会被忽略。
+     */
+    void replay(String playlistId, Playlist playlist) throws IOException {
+        replay(logPath(playlistId), playlist);
+    }
+
+    /**
+     * 在没有开启日志的仓库中重放 directory 里 playlistId 尚未压缩的日志，
+     * 供其他格式的仓库把旧的 CSV 快照连同日志一起转换过去。
+     * @throws IOException 如果上一次压缩中途崩溃、留下了还没有恢复的 .log.old
+     */
+    static void replayPending(Path directory, String playlistId, Playlist playlist) throws IOException {
+        if (Files.exists(directory.resolve(playlistId + RETIRED_LOG_SUFFIX))) {
+            throw new IOException("Playlist " + playlistId + " has an interrupted log compaction; "
+                + "start once with vibevault.repository.format=csv and wal.enabled=true to recover it");
+        }
+        replay(directory.resolve(playlistId + LOG_SUFFIX), playlist);
+    }
+
+    private static void replay(Path path, Playlist playlist) throws IOException {
+        if (Files.notExists(path)) {
+            return;
+        }
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        int lineStart = 0;
+        int lineEnd;
+        while ((lineEnd = content.indexOf('\n', lineStart)) >= 0) {
+            String record = content.substring(lineStart, lineEnd);
+            if (record.length() > 2) {
+                String payload = record.substring(2);
+                switch (record.charAt(0)) {
+                    case ADD -> playlist.addSong(Song.fromCsvString(payload));
+                    case REMOVE -> playlist.removeSong(Integer.parseInt(payload));
+                    default -> throw new IllegalArgumentException("Unknown log record: " + record);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /**
+     * 压缩的第一步：关闭并把当前日志改名为 <id>.log.old。
+     * 新快照就位之后再调用 {@link #deleteRetired(String)} 删除它。
+     */
+    void retire(String playlistId) throws IOException {
+        closeLog(playlistId);
+        Path path = logPath(playlistId);
+        if (Files.exists(path)) {
+            Files.move(path, retiredLogPath(playlistId), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    void deleteRetired(String playlistId) throws IOException {
+        Files.deleteIfExists(retiredLogPath(playlistId));
+    }
+
+    /**
+     * 处理上一次压缩中途崩溃留下的文件。
+     * @param snapshotReplaced 新快照是否已经替换了旧快照
+     */
+    void recover(String playlistId, boolean snapshotReplaced) throws IOException {
+        Path retired = retiredLogPath(playlistId);
+        if (Files.notExists(retired)) {
+            return;
+        }
+        if (snapshotReplaced) {
+            // 新快照已经包含了这些操作，旧日志作废
+            Files.delete(retired);
+        } else {
+            // 旧快照仍然有效，把日志恢复回来继续使用
+            Files.move(retired, logPath(playlistId), StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * 把所有尚未落盘的记录 fsync 到磁盘并关闭文件，在应用关闭时调用。
+     */
+    @Override
+    public void close() throws IOException {
+        for (String playlistId : openLogs.keySet()) {
+            closeLog(playlistId);
+        }
+    }
+
+    private boolean append(String playlistId, String record) throws IOException {
+        LogFile log = openLogs.get(playlistId);
+        if (log == null) {
+            log = open(playlistId);
+            openLogs.put(playlistId, log);
+        }
+        log.channel.write(ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8)));
+        log.records++;
+        if (groupCommitter != null) {
+            groupCommitter.awaitDurable(log.channel);
+        } else if (++log.unsynced >= fsyncBatchSize) {
+            log.channel.force(false);
+            log.unsynced = 0;
+        }
+        return log.records >= compactThreshold;
+    }
+
+    private LogFile open(String playlistId) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(logPath(playlistId),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // 统计已有记录数，并截掉崩溃时写了一半的最后一行，避免新记录接在它后面
+        ByteBuffer existing = ByteBuffer.allocate((int) channel.size());
+        while (existing.hasRemaining() && channel.read(existing) >= 0) {
+            // 读满为止
+        }
+        int records = 0;
+        int validLength = 0;
+        for (int i = 0; i < existing.position(); i++) {
+            if (existing.get(i) == '\n') {
+                records++;
+                validLength = i + 1;
+            }
+        }
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return new LogFile(channel, records);
+    }
+
+    private void closeLog(String playlistId) throws IOException {
+        LogFile log = openLogs.remove(playlistId);
+        if (log != null) {
+            try (FileChannel channel = log.channel) {
+                // 关闭前总是 fsync 一次，组提交线程遇到已关闭的文件时可以直接视为已落盘
+                channel.force(false);
+            }
+        }
+    }
+
+    private Path logPath(String playlistId) {
+        return directory.resolve(playlistId + LOG_SUFFIX);
+    }
+
+    private Path retiredLogPath(String playlistId) {
+        return directory.resolve(playlistId + RETIRED_LOG_SUFFIX);
+    }
+
+    private static final class LogFile {
+        private final FileChannel channel;
+        private int records;
+        private int unsynced;
+
+        private LogFile(FileChannel channel, int records) {
+            this.channel = channel;
+            this.records = records;
+        }
+    }
+}
@@ -1,9 +1,69 @@
 package com.vibevault.repository;
 
 import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import java.util.List;
 import java.util.Optional;
 
 public interface PlaylistRepository {
     void save(Playlist playlist);
     Optional<Playlist> load(String playlistId);
+
+    /**
+     * 持久化"在末尾添加了一首歌"这一变更，调用前 playlist 中已经包含了这首歌。
+     * 默认实现直接保存整个播放列表；支持追加日志的实现可以只写入这一条变更。
+     */
+    default void saveSongAdded(Playlist playlist, Song song) {
+        save(playlist);
+    }
+
+    /**
+     * 持久化"删除了指定索引的歌曲"这一变更，调用前这首歌已经从 playlist 中删除。
+     * 默认实现直接保存整个播放列表；支持追加日志的实现可以只写入这一条变更。
+     */
+    default void saveSongRemoved(Playlist playlist, int songIndex) {
+        save(playlist);
+    }
+
+    /**
+     * 在播放列表末尾添加一首歌。
+     * 默认实现先加载整个播放列表再调用 saveSongAdded；支持追加日志的实现可以直接追加一条记录，不需要加载。
+     * @return 播放列表不存在时返回 false
+     */
+    default boolean appendSong(String playlistId, Song song) {
+        Optional<Playlist> playlist = load(playlistId);
+        if (playlist.isEmpty()) {
+            return false;
+        }
+        playlist.get().addSong(song);
+        saveSongAdded(playlist.get(), song);
+        return true;
+    }
+
+    /**
+     * 删除播放列表中第一首标题为 title 的歌曲。
+     * 默认实现先加载整个播放列表再调用 saveSongRemoved。
+     */
+    default RemoveResult removeSongByTitle(String playlistId, String title) {
+        Optional<Playlist> loaded = load(playlistId);
+        if (loaded.isEmpty()) {
+            return RemoveResult.PLAYLIST_NOT_FOUND;
+        }
+        Playlist playlist = loaded.get();
+        List<Song> songs = playlist.getSongs();
+        for (int i = 0; i < songs.size(); i++) {
+            if (title.equals(songs.get(i).title())) {
+                playlist.removeSong(i);
+                saveSongRemoved(playlist, i);
+                return RemoveResult.REMOVED;
+            }
+        }
+        return RemoveResult.SONG_NOT_FOUND;
+    }
+
+    enum RemoveResult {
+        REMOVED,
+        SONG_NOT_FOUND,
+        PLAYLIST_NOT_FOUND
+    }
 }
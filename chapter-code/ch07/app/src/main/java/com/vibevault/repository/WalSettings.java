@@ -0,0 +1,38 @@
+package com.vibevault.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * FilePlaylistRepository 追加式操作日志的配置，对应 application.properties 中的 vibevault.repository.wal.*。
+ *
+ * @param enabled 是否开启追加日志
+ * @param fsyncBatchSize 每累积多少条日志记录执行一次 fsync（开启组提交时不使用）
+ * @param compactThreshold 日志记录数达到这个值时压缩回快照
+ * @param groupCommit 组提交的配置
+ */
+@ConfigurationProperties("vibevault.repository.wal")
+public record WalSettings(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("32") int fsyncBatchSize,
+        @DefaultValue("1000") int compactThreshold,
+        @DefaultValue GroupCommit groupCommit) {
+
+    /**
+     * @param enabled 是否把并发请求的 fsync 合并成一批
+     * @param windowMs 批处理窗口（毫秒）
+     * @param maxBatchSize 每批最多合并的写入数
+     */
+    public record GroupCommit(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("2") long windowMs,
+            @DefaultValue("64") int maxBatchSize) {
+    }
+
+    /**
+     * 不开启追加日志的默认配置，供不经过 Spring 创建仓库的代码（例如基准测试）使用。
+     */
+    public static WalSettings disabled() {
+        return new WalSettings(false, 32, 1000, new GroupCommit(false, 2, 64));
+    }
+}
@@ -0,0 +1,58 @@
+package com.vibevault.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按播放列表ID分段（striped）的锁表。
+ *
+ * 每个播放列表ID通过哈希映射到固定数量锁中的一把：同一个播放列表的"读取-修改-保存"一定串行执行，
+ * 不会丢失更新；不同的播放列表大概率落在不同的锁上，可以在多个CPU核心上并行写入。
+ * 锁的数量固定，不会随播放列表数量增长。每把锁被争用（需要排队等待）的次数会记录到
+ * vibevault.playlist.lock.contended 计数器中，用 stripe 标签区分。
+ */
+class PlaylistLockStripes {
+
+    private final ReentrantLock[] locks;
+    private final Counter[] contended;
+
+    PlaylistLockStripes(int stripeCount, MeterRegistry meterRegistry) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("stripeCount must be a positive power of two");
+        }
+        this.locks = new ReentrantLock[stripeCount];
+        this.contended = new Counter[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+            contended[i] = Counter.builder("vibevault.playlist.lock.contended")
+                .description("Number of times a writer had to wait for a playlist lock stripe")
+                .tag("stripe", Integer.toString(i))
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 持有 playlistId 对应的锁执行 action。
+     */
+    void runLocked(String playlistId, Runnable action) {
+        int stripe = stripeFor(playlistId);
+        ReentrantLock lock = locks[stripe];
+        if (!lock.tryLock()) {
+            contended[stripe].increment();
+            lock.lock();
+        }
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeFor(String playlistId) {
+        int hash = playlistId.hashCode();
+        // 把高位混合进低位，避免只靠低几位区分ID
+        hash ^= (hash >>> 16);
+        return hash & (locks.length - 1);
+    }
+}
@@ -1,21 +1,38 @@
 package com.vibevault.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.repository.PlaylistRepository.RemoveResult;
 import com.vibevault.dto.PlaylistDTO;
 import com.vibevault.dto.SongDTO;
 import com.vibevault.model.Playlist;
 import com.vibevault.model.Song;
 import com.vibevault.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.util.stream.Collectors;
-import java.util.List;
 
 @Service
 public class PlaylistServiceImpl implements PlaylistService {
     private final PlaylistRepository repository;
+    // "读取-修改-保存"必须串行执行，否则两个并发请求会互相覆盖对方的修改
+    private final PlaylistLockStripes locks;
 
     public PlaylistServiceImpl(PlaylistRepository repository) {
+        this(repository, 64, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public PlaylistServiceImpl(
+            PlaylistRepository repository,
+            @Value("${vibevault.service.lock-stripes:64}") int lockStripes,
+            MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.locks = new PlaylistLockStripes(lockStripes, meterRegistry);
     }
     
     @Override
@@ -35,42 +52,33 @@ public class PlaylistServiceImpl implements PlaylistService {
 
     @Override
     public void addSongToPlaylist(String playlistId, SongDTO songDTO) {
-        // 先加载播放列表，如果不存在则同样会抛出404异常，确保操作的有效性
-        Playlist playlist = repository.load(playlistId)
-            .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
-        
-        // [模型转换] 将外部传入的SongDTO，转换为内部的Song领域模型
-        // 注意：因为SongDTO没有时长信息，我们在这里使用一个默认值0
-        Song newSong = new Song(songDTO.title(), songDTO.artist(), 0);
-        
-        // 执行业务逻辑并持久化
-        playlist.addSong(newSong);
-        repository.save(playlist);
+        // 仓库按行存储歌曲，换行符会把一条记录拆成两条，在这里就以 400 拒绝
+        if (!Song.fitsOnOneLine(songDTO.title()) || !Song.fitsOnOneLine(songDTO.artist())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "标题和艺术家不能包含换行符");
+        }
+        locks.runLocked(playlistId, () -> {
+            // [模型转换] 将外部传入的SongDTO，转换为内部的Song领域模型
+            // 注意：因为SongDTO没有时长信息，我们在这里使用一个默认值0
+            Song newSong = new Song(songDTO.title(), songDTO.artist(), 0);
+
+            // 交给仓库直接追加到末尾：开启追加日志时只写一条记录，不需要先加载整个播放列表
+            if (!repository.appendSong(playlistId, newSong)) {
+                throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
+            }
+        });
     }
 
     @Override
     public void removeSongFromPlaylist(String playlistId, String title) {
-        // 先加载播放列表，如果不存在则抛出404异常
-        Playlist playlist = repository.load(playlistId)
-            .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
-        
-        // 查找要删除的歌曲索引
-        List<Song> songs = playlist.getSongs();
-        int indexToRemove = -1;
-        for (int i = 0; i < songs.size(); i++) {
-            if (songs.get(i).title().equals(title)) {
-                indexToRemove = i;
-                break;
+        locks.runLocked(playlistId, () -> {
+            // 交给仓库按标题删除：开启追加日志时用缓存的歌曲标题找到索引，不需要先加载整个播放列表
+            RemoveResult result = repository.removeSongByTitle(playlistId, title);
+            if (result == RemoveResult.PLAYLIST_NOT_FOUND) {
+                throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
             }
-        }
-        
-        // 如果找不到指定标题的歌曲，抛出异常
-        if (indexToRemove == -1) {
-            throw new ResourceNotFoundException("Song with title '" + title + "' not found in playlist: " + playlistId);
-        }
-        
-        // 删除歌曲并持久化
-        playlist.removeSong(indexToRemove);
-        repository.save(playlist);
+            if (result == RemoveResult.SONG_NOT_FOUND) {
+                throw new ResourceNotFoundException("Song with title '" + title + "' not found in playlist: " + playlistId);
+            }
+        });
     }
 }
\ No newline at end of file
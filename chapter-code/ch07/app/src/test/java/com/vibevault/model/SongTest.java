@@ -0,0 +1,41 @@
+package com.vibevault.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SongTest {
+
+    @Test
+    void testCsvRoundTripWithCommaAndQuotes() {
+        // Arrange: 标题里同时有逗号和双引号，以前的 split(",") 会把它切成4个字段
+        Song song = new Song("Hello, \"Goodbye\"", "The Beatles", 208);
+
+        // Act
+        String csvLine = song.toCsvString();
+
+        // Assert
+        assertEquals("\"Hello, \"\"Goodbye\"\"\",The Beatles,208", csvLine);
+        assertEquals(song, Song.fromCsvString(csvLine));
+    }
+
+    @Test
+    void testSimpleSongsKeepTheOldFormat() {
+        // 不需要加引号的歌曲和以前写出的内容完全一样，已有的快照文件不用迁移
+        assertEquals("Imagine,John Lennon,183", new Song("Imagine", "John Lennon", 183).toCsvString());
+        assertEquals(new Song("Imagine", "John Lennon", 183), Song.fromCsvString("Imagine,John Lennon,183"));
+    }
+
+    @Test
+    void testToCsvStringRejectsLineBreaks() {
+        // 每首歌必须正好占一行，否则快照和追加日志按行切分时会被拆成两条记录
+        assertThrows(IllegalArgumentException.class, () -> new Song("Line\nBreak", "Queen", 1).toCsvString());
+        assertThrows(IllegalArgumentException.class, () -> new Song("Title", "Carriage\rReturn", 1).toCsvString());
+    }
+
+    @Test
+    void testFromCsvStringRejectsWrongFieldCount() {
+        assertThrows(IllegalArgumentException.class, () -> Song.fromCsvString("Hello, Goodbye,The Beatles,208"));
+        assertThrows(IllegalArgumentException.class, () -> Song.fromCsvString("Imagine,John Lennon"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.vibevault.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringInternerTest {
+
+    @Test
+    void testSongsShareArtistInstance() {
+        // Arrange: 用 new String 制造两个内容相同、但不是同一个对象的字符串
+        String artistA = new String("Queen");
+        String artistB = new String("Queen");
+        assertNotSame(artistA, artistB);
+
+        // Act: 通过 Song 的构造函数创建两首歌
+        Song first = new Song("Bohemian Rhapsody", artistA, 355);
+        Song second = new Song("Under Pressure", artistB, 248);
+
+        // Assert: 两首歌引用的是同一个字符串实例
+        assertSame(first.artist(), second.artist()); // <--- 去重后只保留一份
+    }
+
+    @Test
+    void testFromCsvStringSharesTitleInstance() {
+        // Act: 解析两行内容相同的CSV，每次解析都会 split 出新的字符串
+        Song first = Song.fromCsvString("Imagine,John Lennon,183");
+        Song second = Song.fromCsvString("Imagine,John Lennon,183");
+
+        // Assert
+        assertSame(first.title(), second.title());
+        assertSame(first.artist(), second.artist());
+        assertEquals(first, second); // <--- record 的相等性不受影响
+    }
+
+    @Test
+    void testInternKeepsNull() {
+        assertNull(StringInterner.intern(null));
+    }
+}
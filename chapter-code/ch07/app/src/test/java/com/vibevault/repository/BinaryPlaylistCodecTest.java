@@ -0,0 +1,134 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryPlaylistCodecTest {
+
+    @Test
+    void testRoundTripKeepsEverySong() throws IOException {
+        // Arrange: 重复的艺术家、null、多字节字符、负数时长
+        Playlist playlist = new Playlist("mix");
+        playlist.addSong(new Song("Bohemian Rhapsody", "Queen", 355));
+        playlist.addSong(new Song("Under Pressure", "Queen", 248));
+        playlist.addSong(new Song("夜曲", "周杰伦", 226));
+        playlist.addSong(new Song(null, "Unknown", -1));
+
+        // Act
+        Playlist decoded = BinaryPlaylistCodec.decode("mix", BinaryPlaylistCodec.encode(playlist));
+
+        // Assert
+        assertEquals("mix", decoded.getName());
+        assertEquals(playlist.getSongs(), decoded.getSongs());
+    }
+
+    @Test
+    void testRoundTripWithWideColumns() throws IOException {
+        // 超过 255 个不同的字符串时下标列用 2 字节，超过 65535 的时长用 4 字节
+        Playlist playlist = new Playlist("wide");
+        for (int i = 0; i < 300; i++) {
+            playlist.addSong(new Song("Song " + i, "Artist " + (i % 7), 70_000 + i));
+        }
+
+        Playlist decoded = BinaryPlaylistCodec.decode("wide", BinaryPlaylistCodec.encode(playlist));
+
+        assertEquals(playlist.getSongs(), decoded.getSongs());
+    }
+
+    @Test
+    void testRoundTripEmptyPlaylist() throws IOException {
+        Playlist decoded = BinaryPlaylistCodec.decode("empty", BinaryPlaylistCodec.encode(new Playlist("empty")));
+
+        assertEquals(0, decoded.getSongCount());
+    }
+
+    @Test
+    void testRejectsBadMagicAndChecksum() {
+        byte[] encoded = encodeSample();
+
+        byte[] badMagic = encoded.clone();
+        badMagic[0] = 'X';
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", badMagic));
+
+        byte[] badChecksum = encoded.clone();
+        badChecksum[badChecksum.length - 1] ^= 1;
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", badChecksum));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", truncated));
+    }
+
+    @Test
+    void testRejectsOutOfRangeStringIndex() {
+        // Arrange: 样例有 3 个不同的字符串，把第一首歌的标题下标改成 9，并重新计算校验和
+        byte[] corrupt = encodeSample();
+        int titleColumn = titleColumnOffset(corrupt);
+        corrupt[titleColumn + 1] = 9;
+        fixChecksum(corrupt);
+
+        // Act + Assert: 和魔数、校验和错误一样是 IOException，而不是 ArrayIndexOutOfBoundsException
+        IOException e = assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", corrupt));
+        assertTrue(e.getMessage().contains("index"));
+    }
+
+    @Test
+    void testRejectsInconsistentCounts() {
+        // 歌曲数量比数据部分能放下的还多
+        byte[] tooManySongs = encodeSample();
+        ByteBuffer.wrap(tooManySongs).putInt(8, Integer.MAX_VALUE);
+        fixChecksum(tooManySongs);
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", tooManySongs));
+
+        // 负数的字符串数量
+        byte[] negativeStrings = encodeSample();
+        ByteBuffer.wrap(negativeStrings).putInt(12, -1);
+        fixChecksum(negativeStrings);
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", negativeStrings));
+
+        // 歌曲数量比三列的实际数据多一首
+        byte[] columnsTooShort = encodeSample();
+        ByteBuffer.wrap(columnsTooShort).putInt(8, 3);
+        fixChecksum(columnsTooShort);
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", columnsTooShort));
+
+        // 不合法的列宽
+        byte[] badWidth = encodeSample();
+        badWidth[titleColumnOffset(badWidth)] = 3;
+        fixChecksum(badWidth);
+        assertThrows(IOException.class, () -> BinaryPlaylistCodec.decode("mix", badWidth));
+    }
+
+    // 两首歌、3 个不同的字符串："A"、"Queen"、"B"
+    private static byte[] encodeSample() {
+        Playlist playlist = new Playlist("mix");
+        playlist.addSong(new Song("A", "Queen", 1));
+        playlist.addSong(new Song("B", "Queen", 2));
+        return BinaryPlaylistCodec.encode(playlist);
+    }
+
+    // 标题列的起始位置（列宽字节）：跳过头部和字符串表
+    private static int titleColumnOffset(byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int stringCount = buffer.getInt(12);
+        buffer.position(BinaryPlaylistCodec.HEADER_SIZE);
+        for (int i = 0; i < stringCount; i++) {
+            int length = buffer.getInt();
+            buffer.position(buffer.position() + Math.max(length, 0));
+        }
+        return buffer.position();
+    }
+
+    private static void fixChecksum(byte[] encoded) {
+        CRC32 crc = new CRC32();
+        crc.update(encoded, BinaryPlaylistCodec.HEADER_SIZE, encoded.length - BinaryPlaylistCodec.HEADER_SIZE);
+        ByteBuffer.wrap(encoded).putInt(20, (int) crc.getValue());
+    }
+}
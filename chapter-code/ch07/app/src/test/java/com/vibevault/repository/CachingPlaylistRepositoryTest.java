@@ -0,0 +1,179 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingPlaylistRepositoryTest {
+
+    // 后台线程一小时才写回一次，测试里由 flush() 手动控制写回的时机
+    private static final long NEVER = TimeUnit.HOURS.toMillis(1);
+
+    private final InMemoryStore store = new InMemoryStore();
+    private final ExecutorService readers = Executors.newSingleThreadExecutor();
+    private CachingPlaylistRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        readers.shutdownNow();
+        store.failSaves.set(0);
+        repository.close();
+    }
+
+    @Test
+    void testLoadRacingWithWriteDoesNotCacheStaleVersion() throws Exception {
+        // Arrange: 磁盘上是旧版本，读盘会卡住；容量只有1，写回后的干净条目会被立即淘汰
+        repository = new CachingPlaylistRepository(store, 1, NEVER);
+        store.put(playlist("mix", "Old"));
+        store.blockLoads();
+
+        // Act: 读盘期间写入新版本，写回磁盘后它变成干净条目并被淘汰出缓存
+        Future<Optional<Playlist>> slowLoad = readers.submit(() -> repository.load("mix"));
+        assertTrue(store.loadEntered.await(5, TimeUnit.SECONDS));
+        store.staleResult = store.get("mix");
+        repository.save(playlist("mix", "New"));
+        repository.flush();
+        store.releaseLoads();
+        assertEquals(List.of(song("Old")), slowLoad.get(5, TimeUnit.SECONDS).orElseThrow().getSongs());
+
+        // Assert: 慢读取拿到的旧版本没有进入缓存，之后的读取看到的是新版本
+        assertEquals(List.of(song("New")), repository.load("mix").orElseThrow().getSongs());
+    }
+
+    @Test
+    void testFailedFlushIsRetried() {
+        // Arrange
+        repository = new CachingPlaylistRepository(store, 1000, NEVER);
+        repository.save(playlist("mix", "A"));
+        store.failSaves.set(1);
+
+        // Act: 第一次写回失败
+        assertThrows(IllegalStateException.class, repository::flush);
+        assertNull(store.get("mix"));
+
+        // Assert: 条目仍然是脏的，下一轮写回成功
+        repository.flush();
+        assertEquals(List.of(song("A")), store.get("mix").getSongs());
+        assertEquals(2, store.saves.get()); // 失败的那次加上成功的那次
+    }
+
+    @Test
+    void testCacheStaysBoundedWhileWritesFail() {
+        // Arrange: 每个播放列表的权重是 2（1首歌 + 1），容量 10
+        repository = new CachingPlaylistRepository(store, 10, NEVER);
+        store.failSaves.set(Integer.MAX_VALUE);
+
+        // Act: 磁盘一直写失败，脏条目淘汰不掉
+        int rejected = 0;
+        for (int i = 0; i < 100; i++) {
+            try {
+                repository.save(playlist("list-" + i, "Song " + i));
+            } catch (IllegalStateException e) {
+                rejected++;
+            }
+        }
+
+        // Assert: 缓存满了之后的写入都在同步写回时失败，缓存最多只多出一个播放列表
+        assertTrue(repository.cachedSongs() <= 10 + 2, "cachedSongs=" + repository.cachedSongs());
+        assertTrue(rejected >= 90, "rejected=" + rejected);
+
+        // 磁盘恢复后，下一次写入会同步写回所有脏条目，再按 LRU 淘汰
+        store.failSaves.set(0);
+        repository.save(playlist("list-100", "Song 100"));
+        assertTrue(repository.cachedSongs() <= 10 + 2, "cachedSongs=" + repository.cachedSongs());
+        assertEquals(List.of(song("Song 0")), store.get("list-0").getSongs());
+    }
+
+    @Test
+    void testEvictionKeepsCleanEntriesWithinCapacity() {
+        repository = new CachingPlaylistRepository(store, 10, NEVER);
+
+        for (int i = 0; i < 50; i++) {
+            repository.save(playlist("list-" + i, "Song " + i));
+        }
+        repository.flush();
+
+        assertTrue(repository.cachedSongs() <= 10, "cachedSongs=" + repository.cachedSongs());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(List.of(song("Song " + i)), repository.load("list-" + i).orElseThrow().getSongs());
+        }
+    }
+
+    private static Playlist playlist(String name, String title) {
+        Playlist playlist = new Playlist(name);
+        playlist.addSong(song(title));
+        return playlist;
+    }
+
+    private static Song song(String title) {
+        return new Song(title, "Artist", 1);
+    }
+
+    /**
+     * 内存中的底层仓库，可以让 save 失败，也可以让 load 卡住并返回一个旧版本。
+     */
+    private static final class InMemoryStore implements PlaylistRepository {
+        private final Map<String, Playlist> playlists = new ConcurrentHashMap<>();
+        private final AtomicInteger saves = new AtomicInteger();
+        private final AtomicInteger failSaves = new AtomicInteger();
+        private final CountDownLatch loadEntered = new CountDownLatch(1);
+        private volatile CountDownLatch loadGate;
+        private volatile Playlist staleResult;
+
+        void blockLoads() {
+            loadGate = new CountDownLatch(1);
+        }
+
+        void releaseLoads() {
+            loadGate.countDown();
+            loadGate = null;
+        }
+
+        void put(Playlist playlist) {
+            playlists.put(playlist.getName(), playlist);
+        }
+
+        Playlist get(String playlistId) {
+            return playlists.get(playlistId);
+        }
+
+        @Override
+        public void save(Playlist playlist) {
+            saves.incrementAndGet();
+            if (failSaves.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                throw new IllegalStateException("simulated disk failure");
+            }
+            put(playlist);
+        }
+
+        @Override
+        public Optional<Playlist> load(String playlistId) {
+            CountDownLatch gate = loadGate;
+            if (gate == null) {
+                return Optional.ofNullable(playlists.get(playlistId));
+            }
+            loadEntered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // 模拟在新版本写回之前就已经读到了旧内容
+            return Optional.ofNullable(staleResult);
+        }
+    }
+}
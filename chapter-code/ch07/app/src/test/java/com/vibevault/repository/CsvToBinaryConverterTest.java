@@ -0,0 +1,56 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Song;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvToBinaryConverterTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testConvertsSnapshotAndPendingLog() throws IOException {
+        // Arrange: CSV 快照加上一份还没有压缩的追加日志
+        Files.write(dataDir.resolve("mix.csv"), List.of("Imagine,John Lennon,183", "\"Hello, Goodbye\",The Beatles,208"));
+        Files.write(dataDir.resolve("mix.log"), List.of("A,Hey Jude,The Beatles,431", "R,0"));
+
+        // Act
+        CsvToBinaryConverter.main(new String[] {dataDir.toString()});
+
+        // Assert: 二进制快照与重放日志之后的播放列表一致，原文件保留
+        byte[] encoded = Files.readAllBytes(dataDir.resolve("mix" + BinaryPlaylistCodec.FILE_SUFFIX));
+        assertEquals(
+            List.of(new Song("Hello, Goodbye", "The Beatles", 208), new Song("Hey Jude", "The Beatles", 431)),
+            BinaryPlaylistCodec.decode("mix", encoded).getSongs());
+        assertTrue(Files.exists(dataDir.resolve("mix.csv")));
+        assertTrue(Files.exists(dataDir.resolve("mix.log")));
+    }
+
+    @Test
+    void testConvertedSnapshotLoadsThroughBinaryRepository() throws IOException {
+        Files.write(dataDir.resolve("mix.csv"), List.of("Imagine,John Lennon,183"));
+
+        CsvToBinaryConverter.main(new String[] {dataDir.toString()});
+        Files.delete(dataDir.resolve("mix.csv"));
+
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183)),
+            new BinaryPlaylistRepository(dataDir).load("mix").orElseThrow().getSongs());
+    }
+
+    @Test
+    void testRefusesInterruptedCompaction() throws IOException {
+        Files.write(dataDir.resolve("mix.csv"), List.of("Imagine,John Lennon,183"));
+        Files.write(dataDir.resolve("mix.log.old"), List.of("A,Hey Jude,The Beatles,431"));
+
+        assertThrows(IOException.class, () -> CsvToBinaryConverter.main(new String[] {dataDir.toString()}));
+        assertFalse(Files.exists(dataDir.resolve("mix" + BinaryPlaylistCodec.FILE_SUFFIX)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import com.vibevault.repository.PlaylistRepository.RemoveResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilePlaylistRepositoryTest {
+
+    private static final String PLAYLIST_ID = "road-trip";
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testReplayAfterCrash() {
+        // Arrange: 建一个空播放列表，之后的增删只写日志
+        FilePlaylistRepository repository = walRepository(1000);
+        repository.save(new Playlist(PLAYLIST_ID));
+
+        // Act: 追加和删除后不调用 close()，模拟进程直接崩溃
+        repository.appendSong(PLAYLIST_ID, new Song("Bohemian Rhapsody", "Queen", 355));
+        repository.appendSong(PLAYLIST_ID, new Song("Imagine", "John Lennon", 183));
+        repository.appendSong(PLAYLIST_ID, new Song("Hey Jude", "The Beatles", 431));
+        assertEquals(RemoveResult.REMOVED, repository.removeSongByTitle(PLAYLIST_ID, "Imagine"));
+
+        // Assert: 重启后的仓库通过重放日志得到同样的播放列表
+        assertEquals(List.of(new Song("Bohemian Rhapsody", "Queen", 355), new Song("Hey Jude", "The Beatles", 431)),
+            songsAfterRestart());
+    }
+
+    @Test
+    void testTornTailIsIgnoredAndTruncated() throws IOException {
+        // Arrange: 日志末尾留下半条没有换行符的记录，就像写到一半时断电
+        FilePlaylistRepository repository = walRepository(1000);
+        repository.save(new Playlist(PLAYLIST_ID));
+        repository.appendSong(PLAYLIST_ID, new Song("Imagine", "John Lennon", 183));
+        Files.writeString(logPath(), "A,Half Writ", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // Act: 重启后继续追加
+        FilePlaylistRepository restarted = walRepository(1000);
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183)), restarted.load(PLAYLIST_ID).orElseThrow().getSongs());
+        restarted.appendSong(PLAYLIST_ID, new Song("Hey Jude", "The Beatles", 431));
+
+        // Assert: 半条记录被截掉了，新记录没有接在它后面
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183), new Song("Hey Jude", "The Beatles", 431)),
+            songsAfterRestart());
+    }
+
+    @Test
+    void testLogRoundTripsCommasAndQuotes() {
+        FilePlaylistRepository repository = walRepository(1000);
+        repository.save(new Playlist(PLAYLIST_ID));
+        Song song = new Song("Hello, \"Goodbye\"", "Lennon, McCartney", 208);
+
+        repository.appendSong(PLAYLIST_ID, song);
+
+        assertEquals(List.of(song), songsAfterRestart());
+    }
+
+    @Test
+    void testLineBreakIsRejectedBeforeWritingToTheLog() throws IOException {
+        FilePlaylistRepository repository = walRepository(1000);
+        repository.save(new Playlist(PLAYLIST_ID));
+        repository.appendSong(PLAYLIST_ID, new Song("Imagine", "John Lennon", 183));
+        long logSize = Files.size(logPath());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> repository.appendSong(PLAYLIST_ID, new Song("Line\nBreak", "Queen", 1)));
+
+        // 日志一个字节都没有多写
+        assertEquals(logSize, Files.size(logPath()));
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183)), songsAfterRestart());
+    }
+
+    @Test
+    void testCompactionInterruptedBeforeSnapshotReplaceKeepsOldSnapshotAndLog() throws IOException {
+        // Arrange: 日志已改名为 .log.old、新快照还停留在 .csv.tmp 时崩溃
+        Files.write(dataDir.resolve(PLAYLIST_ID + ".csv"), List.of("Imagine,John Lennon,183"));
+        Files.write(dataDir.resolve(PLAYLIST_ID + ".log.old"), List.of("A,Hey Jude,The Beatles,431"));
+        Files.write(dataDir.resolve(PLAYLIST_ID + ".csv.tmp"), List.of("Imagine,John Lennon,183", "Hey Jude,The Beatles,431"));
+
+        // Act
+        List<Song> songs = songsAfterRestart();
+
+        // Assert: 旧快照加上恢复回来的日志
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183), new Song("Hey Jude", "The Beatles", 431)), songs);
+        assertTrue(Files.exists(logPath()));
+        assertFalse(Files.exists(dataDir.resolve(PLAYLIST_ID + ".log.old")));
+        assertFalse(Files.exists(dataDir.resolve(PLAYLIST_ID + ".csv.tmp")));
+    }
+
+    @Test
+    void testCompactionInterruptedAfterSnapshotReplaceDropsRetiredLog() throws IOException {
+        // Arrange: 新快照已经替换了旧快照，但删除 .log.old 之前崩溃
+        Files.write(dataDir.resolve(PLAYLIST_ID + ".csv"), List.of("Imagine,John Lennon,183", "Hey Jude,The Beatles,431"));
+        Files.write(dataDir.resolve(PLAYLIST_ID + ".log.old"), List.of("A,Hey Jude,The Beatles,431"));
+
+        // Act
+        List<Song> songs = songsAfterRestart();
+
+        // Assert: 新快照已经包含日志中的操作，不会重放第二次
+        assertEquals(List.of(new Song("Imagine", "John Lennon", 183), new Song("Hey Jude", "The Beatles", 431)), songs);
+        assertFalse(Files.exists(dataDir.resolve(PLAYLIST_ID + ".log.old")));
+    }
+
+    @Test
+    void testRemoveSongByTitleAfterCompaction() throws IOException {
+        // Arrange: 每3条记录压缩一次
+        FilePlaylistRepository repository = walRepository(3);
+        repository.save(new Playlist(PLAYLIST_ID));
+        repository.appendSong(PLAYLIST_ID, new Song("A", "Artist", 1));
+        // 第一次删除会加载播放列表并缓存标题
+        assertEquals(RemoveResult.REMOVED, repository.removeSongByTitle(PLAYLIST_ID, "A"));
+
+        // Act: 第3条记录触发压缩，之后缓存的标题必须和新快照一致
+        repository.appendSong(PLAYLIST_ID, new Song("B", "Artist", 2));
+        assertFalse(Files.exists(logPath()) && Files.size(logPath()) > 0, "日志应该已经压缩回快照");
+        repository.appendSong(PLAYLIST_ID, new Song("C", "Artist", 3));
+        assertEquals(RemoveResult.REMOVED, repository.removeSongByTitle(PLAYLIST_ID, "B"));
+        assertEquals(RemoveResult.SONG_NOT_FOUND, repository.removeSongByTitle(PLAYLIST_ID, "A"));
+
+        // Assert
+        assertEquals(List.of(new Song("C", "Artist", 3)), repository.load(PLAYLIST_ID).orElseThrow().getSongs());
+        assertEquals(List.of(new Song("C", "Artist", 3)), songsAfterRestart());
+    }
+
+    @Test
+    void testRemoveSongByTitleOnMissingPlaylist() {
+        FilePlaylistRepository repository = walRepository(1000);
+
+        assertEquals(RemoveResult.PLAYLIST_NOT_FOUND, repository.removeSongByTitle("missing", "A"));
+        assertFalse(repository.appendSong("missing", new Song("A", "Artist", 1)));
+    }
+
+    private FilePlaylistRepository walRepository(int compactThreshold) {
+        WalSettings wal = new WalSettings(true, 1, compactThreshold, new WalSettings.GroupCommit(false, 2, 64));
+        return new FilePlaylistRepository(dataDir, FilePlaylistRepository.LOAD_MODE_LINES, wal, new SimpleMeterRegistry());
+    }
+
+    private List<Song> songsAfterRestart() {
+        return walRepository(1000).load(PLAYLIST_ID).orElseThrow().getSongs();
+    }
+
+    private Path logPath() {
+        return dataDir.resolve(PLAYLIST_ID + ".log");
+    }
+}
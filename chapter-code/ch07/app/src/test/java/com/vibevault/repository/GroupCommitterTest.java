@@ -0,0 +1,335 @@
+package com.vibevault.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitterTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @TempDir
+    Path dataDir;
+
+    private final ExecutorService writers = Executors.newCachedThreadPool();
+    private final List<GroupCommitter> committers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        committers.forEach(GroupCommitter::close);
+        writers.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentAppendsAreAcknowledgedOnlyAfterForce() throws Exception {
+        // Arrange: 第一次 fsync 会卡住，直到测试放行
+        CountingChannel channel = openChannel("a.log");
+        channel.blockForce();
+        GroupCommitter committer = newCommitter(0, 64);
+
+        // Act: 一个请求进入 fsync 后，再来几个并发请求
+        List<Future<Integer>> acks = new ArrayList<>();
+        acks.add(awaitDurableAsync(committer, channel));
+        assertTrue(channel.forceEntered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            acks.add(awaitDurableAsync(committer, channel));
+        }
+
+        // Assert: fsync 没有完成之前，没有一个调用方返回
+        Thread.sleep(100);
+        for (Future<Integer> ack : acks) {
+            assertFalse(ack.isDone());
+        }
+        channel.releaseForce();
+        for (Future<Integer> ack : acks) {
+            // 每个调用方返回时看到的已完成 fsync 次数都大于 0
+            assertTrue(ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) > 0);
+        }
+    }
+
+    @Test
+    void testOneForcePerChannelPerBatch() throws Exception {
+        // Arrange: 窗口足够长，8个请求一定会攒成同一批（攒满 maxBatchSize 立即提交）
+        CountingChannel first = openChannel("a.log");
+        CountingChannel second = openChannel("b.log");
+        GroupCommitter committer = newCommitter(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS), 8);
+
+        // Act
+        List<Future<Integer>> acks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            acks.add(awaitDurableAsync(committer, first));
+            acks.add(awaitDurableAsync(committer, second));
+        }
+        for (Future<Integer> ack : acks) {
+            ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        // Assert: 每个文件在这一批中只 fsync 一次
+        assertEquals(1, first.forceCalls.get());
+        assertEquals(1, second.forceCalls.get());
+    }
+
+    @Test
+    void testCloseCompletesPendingRequests() throws Exception {
+        // Arrange: 窗口很长，请求会一直在批里等待
+        CountingChannel channel = openChannel("a.log");
+        GroupCommitter committer = newCommitter(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS * 10), 64);
+        List<Thread> waiting = new ArrayList<>();
+        List<Future<Integer>> acks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            acks.add(awaitDurableAsync(committer, channel, waiting));
+        }
+        awaitAllWaiting(waiting);
+
+        // Act
+        committer.close();
+
+        // Assert: 关闭时已经入队的请求都被提交了，而且只 fsync 了一次
+        for (Future<Integer> ack : acks) {
+            assertTrue(ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) > 0);
+        }
+        assertEquals(1, channel.forceCalls.get());
+        // 关闭之后的新请求立即失败
+        assertThrows(IOException.class, () -> committer.awaitDurable(channel));
+    }
+
+    @Test
+    void testCloseDuringForceCompletesEveryRequest() throws Exception {
+        // Arrange: 提交线程卡在第一次 fsync 中，后面的请求排在队列里
+        CountingChannel channel = openChannel("a.log");
+        channel.blockForce();
+        GroupCommitter committer = newCommitter(0, 64);
+        List<Thread> waiting = new ArrayList<>();
+        List<Future<Integer>> acks = new ArrayList<>();
+        acks.add(awaitDurableAsync(committer, channel, waiting));
+        assertTrue(channel.forceEntered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            acks.add(awaitDurableAsync(committer, channel, waiting));
+        }
+        awaitAllWaiting(waiting);
+
+        // Act: close() 会等待提交线程，所以在另一个线程里调用，再放行 fsync
+        Future<?> closing = writers.submit(committer::close);
+        channel.releaseForce();
+        closing.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // Assert: 没有一个请求被遗留在队列里
+        for (Future<Integer> ack : acks) {
+            assertTrue(ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS) > 0);
+        }
+    }
+
+    @Test
+    void testForceFailureFailsEveryRequestInTheBatch() throws Exception {
+        CountingChannel channel = openChannel("a.log");
+        channel.failForce = true;
+        GroupCommitter committer = newCommitter(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS), 2);
+
+        Future<Integer> first = awaitDurableAsync(committer, channel);
+        Future<Integer> second = awaitDurableAsync(committer, channel);
+
+        for (Future<Integer> ack : List.of(first, second)) {
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> ack.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertTrue(failure.getCause() instanceof IOException);
+        }
+        assertEquals(1, channel.forceCalls.get());
+    }
+
+    private GroupCommitter newCommitter(long windowMillis, int maxBatchSize) {
+        GroupCommitter committer = new GroupCommitter(windowMillis, maxBatchSize, new SimpleMeterRegistry());
+        committers.add(committer);
+        return committer;
+    }
+
+    private CountingChannel openChannel(String fileName) throws IOException {
+        return new CountingChannel(FileChannel.open(dataDir.resolve(fileName),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private Future<Integer> awaitDurableAsync(GroupCommitter committer, CountingChannel channel) {
+        return awaitDurableAsync(committer, channel, new ArrayList<>());
+    }
+
+    /**
+     * 在写线程中等待落盘，返回调用方被唤醒时已经完成的 fsync 次数。
+     */
+    private Future<Integer> awaitDurableAsync(GroupCommitter committer, CountingChannel channel, List<Thread> threads) {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Integer> ack = writers.submit(() -> {
+            synchronized (threads) {
+                threads.add(Thread.currentThread());
+            }
+            started.countDown();
+            committer.awaitDurable(channel);
+            return channel.forcesCompleted.get();
+        });
+        try {
+            assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        return ack;
+    }
+
+    // 线程进入 WAITING 状态说明请求已经入队，正在等待它所在的批落盘
+    private static void awaitAllWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        synchronized (threads) {
+            for (Thread thread : threads) {
+                while (thread.getState() != Thread.State.WAITING) {
+                    assertTrue(System.nanoTime() < deadline, "writer thread never started waiting");
+                    Thread.sleep(5);
+                }
+            }
+        }
+    }
+
+    /**
+     * 包装一个真正的文件通道，统计 force 的调用次数，并且可以让 force 阻塞或失败。
+     */
+    private static final class CountingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private final AtomicInteger forceCalls = new AtomicInteger();
+        private final AtomicInteger forcesCompleted = new AtomicInteger();
+        private final CountDownLatch forceEntered = new CountDownLatch(1);
+        private volatile CountDownLatch forceGate;
+        private volatile boolean failForce;
+
+        private CountingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        void blockForce() {
+            forceGate = new CountDownLatch(1);
+        }
+
+        void releaseForce() {
+            forceGate.countDown();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            forceCalls.incrementAndGet();
+            forceEntered.countDown();
+            CountDownLatch gate = forceGate;
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            if (failForce) {
+                throw new IOException("simulated fsync failure");
+            }
+            delegate.force(metaData);
+            forcesCompleted.incrementAndGet();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedPlaylistLoaderTest {
+
+    // 每一行都不超过20个字节，窗口大小从24字节起，保证每个窗口至少放得下一整行
+    private static final String VALID_FIXTURE = String.join("\n",
+        "Imagine,Lennon,183",
+        "\"Hi, Bye\",Beatles,208",
+        "Café,Zaz,199",
+        " Padded , X , 5",
+        "\"Say \"\"Hi\"\"\",Y,-1",
+        "Last,Z,7");
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void testBothModesAgreeOnValidFixturesForEveryWindowSize() throws IOException {
+        // 同一份数据分别用 LF、CRLF、单独的 CR 换行，末尾有或没有换行符
+        for (String lineBreak : List.of("\n", "\r\n", "\r")) {
+            String content = VALID_FIXTURE.replace("\n", lineBreak);
+            for (String file : List.of(content, content + lineBreak)) {
+                writeSnapshot(file);
+                List<Song> expected = loadWithLinesMode();
+                assertEquals(6, expected.size());
+                assertEquals(new Song("Hi, Bye", "Beatles", 208), expected.get(1));
+
+                // 窗口从24字节到整个文件，总有某一行（或者 "\r\n" 的两个字节）跨过窗口边界
+                for (int windowSize = 24; windowSize <= file.length() + 1; windowSize++) {
+                    assertEquals(expected, loadWithMmap(windowSize), "windowSize=" + windowSize);
+                }
+                assertEquals(expected, loadWithMmap(MappedPlaylistLoader.DEFAULT_WINDOW_SIZE));
+            }
+        }
+    }
+
+    @Test
+    void testBothModesRejectTheSameInvalidLines() throws IOException {
+        List<String> invalidFixtures = List.of(
+            "Imagine,Lennon,183\na,b,3,x\n",    // 4个字段
+            "Imagine,Lennon,183\na,b\n",        // 2个字段
+            "Imagine,Lennon,183\n\nLast,Z,7\n", // 中间的空行
+            "Imagine,Lennon,abc\n",             // 时长不是数字
+            "\"Open,Lennon,183\n");             // 引号没有闭合
+        for (String fixture : invalidFixtures) {
+            writeSnapshot(fixture);
+
+            assertThrows(RuntimeException.class, this::loadWithLinesMode, fixture);
+            assertThrows(IllegalArgumentException.class, () -> loadWithMmap(24), fixture);
+        }
+    }
+
+    @Test
+    void testEmptyFileLoadsAsEmptyPlaylistInBothModes() throws IOException {
+        writeSnapshot("");
+
+        assertEquals(List.of(), loadWithLinesMode());
+        assertEquals(List.of(), loadWithMmap(24));
+    }
+
+    @Test
+    void testLineLongerThanWindowIsReported() throws IOException {
+        writeSnapshot("A title that is far too long,Artist,1\n");
+
+        assertThrows(IOException.class, () -> loadWithMmap(16));
+    }
+
+    private void writeSnapshot(String content) throws IOException {
+        Files.writeString(dataDir.resolve("fixture.csv"), content, StandardCharsets.UTF_8);
+    }
+
+    private List<Song> loadWithLinesMode() {
+        FilePlaylistRepository repository = new FilePlaylistRepository(
+            dataDir, FilePlaylistRepository.LOAD_MODE_LINES, WalSettings.disabled(), new SimpleMeterRegistry());
+        return repository.load("fixture").orElseThrow().getSongs();
+    }
+
+    private List<Song> loadWithMmap(int windowSize) throws IOException {
+        Playlist playlist = new Playlist("fixture");
+        new MappedPlaylistLoader(windowSize).load(dataDir.resolve("fixture.csv"), playlist);
+        return playlist.getSongs();
+    }
+}
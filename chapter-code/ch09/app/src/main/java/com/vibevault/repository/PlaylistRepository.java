@@ -1,8 +1,11 @@
 package com.vibevault.repository;
 
 import com.vibevault.model.Playlist;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -20,4 +23,10 @@ public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     // - ...等等
 
     Optional<Playlist> findByName(String name);
+
+    // findAll() 只查询 playlists 表，之后每访问一个歌单的 songs 都会再发一条SQL（N+1问题）。
+    // 这里用实体图让 Hibernate 通过一次 LEFT JOIN 把歌单和它们的歌曲一起查出来。
+    @EntityGraph(attributePaths = "songs")
+    @Query("SELECT p FROM Playlist p ORDER BY p.id")
+    List<Playlist> findAllWithSongs();
 }
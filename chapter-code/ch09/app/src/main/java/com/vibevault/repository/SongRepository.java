@@ -0,0 +1,18 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Song;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SongRepository extends JpaRepository<Song, Long> {
+
+    // 直接按主键删除一首歌，不加载歌单和它的歌曲列表，耗时与歌单大小无关。
+    // 只有歌曲属于这个歌单时才会删除；返回删除的行数（0 或 1）。
+    @Modifying
+    @Query("DELETE FROM Song s WHERE s.id = :songId AND s.playlist.id = :playlistId")
+    int deleteFromPlaylist(@Param("songId") long songId, @Param("playlistId") long playlistId);
+}
@@ -8,6 +8,7 @@ import com.vibevault.exception.ResourceNotFoundException;
 import com.vibevault.model.Playlist;
 import com.vibevault.model.Song;
 import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.repository.SongRepository;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -17,14 +18,17 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class PlaylistServiceImpl implements PlaylistService {
     private final PlaylistRepository repository;
+    private final SongRepository songRepository;
 
-    public PlaylistServiceImpl(PlaylistRepository repository) {
+    public PlaylistServiceImpl(PlaylistRepository repository, SongRepository songRepository) {
         this.repository = repository;
+        this.songRepository = songRepository;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PlaylistDTO> getAllPlaylists() {
-        return repository.findAll().stream()
+        return repository.findAllWithSongs().stream()
             .map(this::mapToDto)
             .collect(Collectors.toList());
     }
@@ -57,14 +61,13 @@ public class PlaylistServiceImpl implements PlaylistService {
     @Override
     @Transactional
     public void removeSongFromPlaylist(long playlistId, long songId) {
-        Playlist playlist = repository.findById(playlistId)
-            .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
-        Song songToRemove = playlist.getSongs().stream()
-            .filter(song -> Objects.equals(song.getId(), songId))
-            .findFirst()
-            .orElseThrow(() -> new ResourceNotFoundException("Song not found with id: " + songId));
-        playlist.removeSong(songToRemove);
-        repository.save(playlist);
+        // 一条 DELETE 语句直接删除，不再加载整个歌曲列表
+        if (songRepository.deleteFromPlaylist(songId, playlistId) == 0) {
+            if (!repository.existsById(playlistId)) {
+                throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
+            }
+            throw new ResourceNotFoundException("Song not found with id: " + songId);
+        }
     }
 
     @Override
@@ -18,12 +18,26 @@ dependencies {
     implementation(libs.spring.boot.starter.web)
     implementation(libs.spring.data.jpa)
     implementation(libs.spring.boot.starter.security)
+    implementation(libs.spring.boot.starter.actuator)
+    implementation(libs.spring.boot.starter.aop)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     runtimeOnly(libs.postgresql)
+    implementation(libs.flyway.core)
+    runtimeOnly(libs.flyway.database.postgresql)
+    runtimeOnly(libs.hibernate.jcache)
+    runtimeOnly(libs.hibernate.micrometer)
+    runtimeOnly(variantOf(libs.ehcache) { classifier("jakarta") })
+    runtimeOnly(libs.jaxb.runtime)
     implementation(libs.jjwt.api)
+    implementation(libs.caffeine)
     runtimeOnly(libs.jjwt.impl)
     runtimeOnly(libs.jjwt.jackson)
     
     testImplementation(libs.spring.boot.starter.test)
+    // 集成测试在 Docker 中启动真实的 PostgreSQL，Flyway 迁移和SQL条数与生产环境一致
+    testImplementation(libs.spring.boot.testcontainers)
+    testImplementation(libs.testcontainers.junit.jupiter)
+    testImplementation(libs.testcontainers.postgresql)
 }
 
 application {
@@ -36,4 +50,22 @@ testing {
             useJUnitJupiter()
         }
     }
-}
\ No newline at end of file
+}
+
+// 平台线程 / 虚拟线程对比压测，见 src/loadTest/java/com/vibevault/loadtest/ConcurrencyBenchmark.java
+val loadTest by sourceSets.creating
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs a fixed-concurrency HTTP load test against a running VibeVault instance."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("com.vibevault.loadtest.ConcurrencyBenchmark")
+    args = listOf(
+        providers.gradleProperty("baseUrl").getOrElse("http://localhost:8080"),
+        providers.gradleProperty("path").getOrElse("/api/playlists/summaries"),
+        providers.gradleProperty("concurrency").getOrElse("1000"),
+        providers.gradleProperty("seconds").getOrElse("30"),
+        providers.gradleProperty("output")
+            .getOrElse(layout.buildDirectory.file("reports/loadtest/concurrency.json").get().asFile.path)
+    )
+}
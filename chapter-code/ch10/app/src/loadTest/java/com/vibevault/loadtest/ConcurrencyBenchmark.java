@@ -0,0 +1,111 @@
+package com.vibevault.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 高并发下对比平台线程和虚拟线程两种模式的简单压测工具。
+ *
+ * 用法：
+ * 1. 以默认模式（平台线程）启动应用，运行 ./gradlew :app:loadTest，记录结果；
+ * 2. 以 --spring.profiles.active=virtual-threads 重新启动应用，再运行一次，对比吞吐量和延迟分位数。
+ *
+ * 参数（-P传给 gradle）：baseUrl（默认 http://localhost:8080）、path（默认 /api/playlists/summaries）、
+ * concurrency（同时在途的请求数，默认 1000）、seconds（持续时间，默认 30）、
+ * output（结果文件，默认 build/reports/loadtest/concurrency.json）。
+ * 结果以JSON格式写入 output，两种模式各跑一次时用不同的文件名，之后直接对比两个文件。
+ */
+public final class ConcurrencyBenchmark {
+
+    private ConcurrencyBenchmark() {
+        // 只提供 main 方法
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0] + args[1]);
+        int concurrency = Integer.parseInt(args[2]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+        Path output = Path.of(args[4]);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofSeconds(60)).build();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        // 客户端本身用虚拟线程模拟大量并发用户，每个用户串行地发送请求
+        List<Future<WorkerResult>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> runWorker(client, request, deadline)));
+            }
+        }
+
+        long errors = 0;
+        List<long[]> latencies = new ArrayList<>(concurrency);
+        for (Future<WorkerResult> worker : workers) {
+            WorkerResult result = worker.get();
+            errors += result.errors();
+            latencies.add(result.latenciesMicros());
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+
+        // 没有成功请求时延迟分位数没有意义，写 null
+        String latencyMillis = all.length == 0 ? "null" : String.format(Locale.ROOT,
+                "{\"p50\":%.1f,\"p90\":%.1f,\"p99\":%.1f,\"max\":%.1f}",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), all[all.length - 1] / 1000.0);
+        String json = String.format(Locale.ROOT,
+                "{\"target\":\"%s\",\"concurrency\":%d,\"seconds\":%d,\"requests\":%d,\"errors\":%d,"
+                        + "\"throughputPerSecond\":%.1f,\"latencyMillis\":%s}%n",
+                uri, concurrency, duration.toSeconds(), all.length, errors, all.length / (double) duration.toSeconds(),
+                latencyMillis);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, json);
+        System.out.println("结果已写入 " + output.toAbsolutePath());
+    }
+
+    private static WorkerResult runWorker(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors++;
+                    continue;
+                }
+            } catch (Exception e) {
+                errors++;
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = (System.nanoTime() - start) / 1_000;
+        }
+        return new WorkerResult(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private static double percentile(long[] sortedMicros, double p) {
+        int index = (int) Math.min(sortedMicros.length - 1, Math.ceil(p * sortedMicros.length) - 1);
+        return sortedMicros[Math.max(index, 0)] / 1000.0;
+    }
+
+    private record WorkerResult(long[] latenciesMicros, long errors) {
+    }
+}
@@ -26,7 +26,7 @@ public class VibeVaultApplication {
                                       UserRepository userRepository,
                                       PasswordEncoder passwordEncoder) {
         return args -> {
-            System.out.println("🧹 使用 create-drop 模式，表每次都重新创建");
+            System.out.println("🗄️ 表结构由 Flyway 迁移管理，已有数据会保留");
 
             User owner = userRepository.findByUsername("vibeuser").orElseGet(() -> {
                 String hashed = passwordEncoder.encode("secret123");
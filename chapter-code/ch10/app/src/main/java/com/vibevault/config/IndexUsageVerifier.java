@@ -0,0 +1,70 @@
+package com.vibevault.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 启动时检查热点查询是否有可用的索引，用来发现迁移脚本漏建或误删的索引。
+ *
+ * 表里数据很少时 PostgreSQL 本来就会选择顺序扫描，所以这里在事务内临时关闭 enable_seqscan：
+ * 如果这时执行计划里仍然出现 Seq Scan，说明根本没有可用的索引。
+ * 因为强制排除了顺序扫描，通过检查只说明索引"能用"，不说明真实数据量下优化器会选择它，
+ * 也不说明查询有多快；这里只执行 EXPLAIN，不执行查询本身。缺少索引时打印警告。
+ *
+ * 默认关闭，需要时用 vibevault.schema.verify-indexes=true 开启（例如在预发布环境部署新的迁移之后）。
+ */
+@Component
+@ConditionalOnProperty(name = "vibevault.schema.verify-indexes", havingValue = "true", matchIfMissing = false)
+public class IndexUsageVerifier implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexUsageVerifier.class);
+
+    // 查询条件中的值不重要，只看执行计划
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("加载歌单的歌曲", "SELECT id, title, artist FROM songs WHERE playlist_id = 1 ORDER BY position, id");
+        HOT_QUERIES.put("查找歌单末尾位置", "SELECT max(position) FROM songs WHERE playlist_id = 1");
+        // 与 findSummariesAfter 生成的聚合一致：COUNT(s) 是 count(s.id)
+        HOT_QUERIES.put("歌单摘要统计", "SELECT count(id), sum(duration_in_seconds) FROM songs WHERE playlist_id = 1");
+        HOT_QUERIES.put("按所有者查找歌单", "SELECT id FROM playlists WHERE owner_id = 1");
+        HOT_QUERIES.put("按用户名查找用户", "SELECT id FROM users WHERE username = 'vibeuser'");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IndexUsageVerifier(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // SET LOCAL 只在当前事务内有效，不影响连接池里的其他连接
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            HOT_QUERIES.forEach(this::verify);
+            status.setRollbackOnly();
+        });
+    }
+
+    private void verify(String description, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        boolean sequentialScan = plan.stream().anyMatch(line -> line.contains("Seq Scan"));
+        if (sequentialScan) {
+            logger.warn("缺少索引：{} 需要顺序扫描（{}）\n{}", description, sql, String.join("\n", plan));
+        } else {
+            logger.info("索引检查通过：{}，计划：{}", description, plan.get(0).trim());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.vibevault.config;
 
 import com.vibevault.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -31,11 +32,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            // 没有配置单独的管理端口时为 -1，不会与任何请求的端口相同
+            @Value("${management.server.port:-1}") int managementPort) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers(HttpMethod.GET, "/api/playlists").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // 指标只在单独的管理端口上匿名开放，这个端口只应该让内网中的 Prometheus 访问；
+                // 对外的应用端口上没有指标接口
+                .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/playlists", "/api/playlists/stream", "/api/playlists/summaries").permitAll()
                 .anyRequest().authenticated()
             )
             .cors(Customizer.withDefaults())
@@ -0,0 +1,204 @@
+package com.vibevault.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * 统计当前线程执行的SQL语句条数。
+ *
+ * 作为 BeanPostProcessor 把应用的 DataSource 包装一层，从连接池取出的每个连接都会经过这里，
+ * 所以 Hibernate、JdbcTemplate 和其他直接使用 JDBC 的代码执行的SQL都会计入，不需要调用方配合：
+ * - 每次 prepareStatement/prepareCall 算一条，同一条语句作为 JDBC 批次执行多行时也只算一条；
+ * - 普通 Statement 每次 execute(sql)/executeQuery(sql)/executeUpdate(sql) 算一条，executeBatch 整批算一条。
+ * 不在统计中的线程（例如启动时的 Flyway 迁移和索引检查）只多一次 ThreadLocal 读取。
+ *
+ * 用法：{@link #start()} 开始一次统计，用完后关闭返回的 {@link Recording}。
+ * 统计可以嵌套（例如测试里的统计包含请求过滤器里的统计），每一层都会计入同一条语句。
+ * 统计只在当前线程上进行，要把其他线程执行的SQL计入，用 {@link #propagate(Runnable)} 包装交给它的任务。
+ */
+@Component
+public class SqlStatementCounter implements BeanPostProcessor {
+
+    // 每次统计最多记录多少条不同的SQL文本，超出的语句只计数，防止批量操作时占用过多内存
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    // executeBatch 没有SQL文本参数，统计里用这个代替
+    private static final String STATEMENT_BATCH = "<Statement.executeBatch>";
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    // 把一条SQL计入当前线程上的所有统计；当前线程没有在统计时什么也不做
+    private static void record(String sql) {
+        for (Recording recording = CURRENT.get(); recording != null; recording = recording.parent) {
+            recording.record(sql);
+        }
+    }
+
+    /**
+     * 包装一个将在其他线程执行的任务，让它执行的SQL计入调用这个方法时当前线程上的统计，
+     * 可以直接用作 TaskDecorator。调用方必须等任务执行完再关闭统计，两个线程不能同时计入同一个统计。
+     */
+    public static Runnable propagate(Runnable task) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return task;
+        }
+        return () -> {
+            Recording previous = CURRENT.get();
+            CURRENT.set(recording);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * 在当前线程上开始一次统计，直到返回的 Recording 被关闭。
+     */
+    public static Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static final class Recording implements AutoCloseable {
+
+        private final Recording parent;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int count;
+
+        private Recording(Recording parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            if (statements.containsKey(sql) || statements.size() < MAX_DISTINCT_STATEMENTS) {
+                statements.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * 这次统计期间执行的SQL条数。
+         */
+        public int count() {
+            return count;
+        }
+
+        /**
+         * 每条不同的SQL文本及其执行次数，按第一次执行的顺序排列。
+         * 同一条SQL执行了很多次，通常就是循环中的懒加载（N+1查询）。
+         */
+        public Map<String, Integer> statements() {
+            return Collections.unmodifiableMap(statements);
+        }
+
+        @Override
+        public void close() {
+            // 只有最内层的统计可以关闭；外层统计先关闭说明调用顺序有误，这时保持原样
+            if (CURRENT.get() != this) {
+                return;
+            }
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    /**
+     * 包装后的 DataSource。继承 DelegatingDataSource，unwrap/isWrapperFor 仍然能拿到底层的连接池，
+     * 连接池指标等依赖 HikariDataSource 的功能不受影响。
+     */
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        private CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingProxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingProxy(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T countingProxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] {type},
+                new CountingHandler(target));
+    }
+
+    private static final class CountingHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private CountingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // 事务管理器按对象比较连接，代理必须与自己相等
+            if (name.equals("equals") && args.length == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            if (target instanceof Connection) {
+                if ((name.equals("prepareStatement") || name.equals("prepareCall")) && args[0] instanceof String sql) {
+                    record(sql);
+                }
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                record(STATEMENT_BATCH);
+            } else if (name.startsWith("execute") && args != null && args.length > 0 && args[0] instanceof String sql) {
+                record(sql);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // 普通 Statement 也要包装；PreparedStatement 在创建时已经计入，直接返回
+            if (target instanceof Connection && name.equals("createStatement")) {
+                return countingProxy(Statement.class, (Statement) result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.vibevault.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 统计每个请求执行的SQL条数（见 {@link SqlStatementCounter}）。
+ *
+ * 按接口（uri 模板和 method）记录到 vibevault.http.sql.statements 分布摘要中；
+ * 超过 vibevault.sql.max-statements-per-request 时打印警告，列出执行次数最多的几条SQL，
+ * 方便找到 N+1 查询。
+ *
+ * 流式接口的查询在异步线程中执行，不计入这里的统计。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCountingFilter.class);
+    private static final int MAX_LOGGED_STATEMENTS = 5;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+
+    public SqlStatementCountingFilter(MeterRegistry meterRegistry,
+                                      @Value("${vibevault.sql.max-statements-per-request:10}") int maxStatements) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        SqlStatementCounter.Recording recording = SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording.close();
+            report(request, recording);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Recording recording) {
+        // 请求匹配到 Controller 方法后才有 uri 模板（如 /api/playlists/{id}），不会因为路径参数产生无数个标签值
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("vibevault.http.sql.statements")
+                .description("SQL statements executed through Hibernate per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(recording.count());
+
+        if (recording.count() > maxStatements) {
+            String top = recording.statements().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(MAX_LOGGED_STATEMENTS)
+                    .map(entry -> entry.getValue() + " 次：" + entry.getKey())
+                    .collect(Collectors.joining("\n    ", "    ", ""));
+            logger.warn("{} {} 执行了 {} 条SQL，超过上限 {}，可能存在 N+1 查询。执行次数最多的SQL：\n{}",
+                    request.getMethod(), uri, recording.count(), maxStatements, top);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.vibevault.controller;
 import com.vibevault.model.User;
 import com.vibevault.repository.UserRepository;
 import com.vibevault.security.JwtService;
+import com.vibevault.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -14,15 +16,21 @@ import org.springframework.web.server.ResponseStatusException;
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    // BCrypt 计算放在专用线程池中执行，不占用请求线程的CPU时间
+    private final PasswordHashingExecutor passwordHashing;
     private final JwtService jwtService;
+    private final Counter loginSucceeded;
+    private final Counter loginFailed;
 
     public AuthController(UserRepository userRepository,
-                          PasswordEncoder passwordEncoder,
-                          JwtService jwtService) {
+                          PasswordHashingExecutor passwordHashing,
+                          JwtService jwtService,
+                          MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
         this.jwtService = jwtService;
+        this.loginSucceeded = meterRegistry.counter("vibevault.auth.login", "result", "success");
+        this.loginFailed = meterRegistry.counter("vibevault.auth.login", "result", "failure");
     }
 
     @PostMapping("/signup")
@@ -32,7 +40,7 @@ public class AuthController {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "用户名已被注册: " + request.username());
         }
 
-        String encryptedPassword = passwordEncoder.encode(request.password());
+        String encryptedPassword = passwordHashing.encode(request.password());
         User newUser = new User(request.username(), encryptedPassword);
         userRepository.save(newUser);
         return "注册成功！用户名: " + request.username();
@@ -41,18 +49,23 @@ public class AuthController {
     @PostMapping("/login")
     public LoginResponse login(@RequestBody LoginRequest request) {
         User user = userRepository.findByUsername(request.username())
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.UNAUTHORIZED,
-                        "用户名或密码错误"
-                ));
+                .orElseThrow(() -> {
+                    loginFailed.increment();
+                    return new ResponseStatusException(
+                            HttpStatus.UNAUTHORIZED,
+                            "用户名或密码错误"
+                    );
+                });
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
+        if (!passwordHashing.matches(request.password(), user.getPassword())) {
+            loginFailed.increment();
             throw new ResponseStatusException(
                     HttpStatus.UNAUTHORIZED,
                     "用户名或密码错误"
             );
         }
 
+        loginSucceeded.increment();
         String token = jwtService.generateToken(user.getUsername());
         return new LoginResponse(token, user.getUsername());
     }
@@ -1,10 +1,22 @@
 package com.vibevault.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vibevault.dto.PlaylistDTO;
+import com.vibevault.dto.PlaylistSummaryDTO;
 import com.vibevault.dto.SongCreateDTO;
+import com.vibevault.dto.SongImportResultDTO;
 import com.vibevault.service.PlaylistService;
+import com.vibevault.service.SongImportSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -12,25 +24,70 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/playlists")
 @CrossOrigin(origins = "http://localhost:5173")
 public class PlaylistController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PlaylistService playlistService;
+    private final ObjectMapper objectMapper;
 
-    public PlaylistController(PlaylistService playlistService) {
+    public PlaylistController(PlaylistService playlistService, ObjectMapper objectMapper) {
         this.playlistService = playlistService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * 分页返回歌单：GET /api/playlists?limit=50&after=123
+     * 取下一页时把这一页最后一个歌单的id作为 after 传入，返回空数组表示已经到底。
+     */
     @GetMapping
-    public List<PlaylistDTO> getAllPlaylists() {
-        return playlistService.getAllPlaylists();
+    public List<PlaylistDTO> getAllPlaylists(@RequestParam(required = false) Long after,
+                                             @RequestParam(defaultValue = "50") int limit) {
+        return playlistService.getPlaylistsPage(after, limit);
+    }
+
+    /**
+     * 以 NDJSON（每行一个歌单的JSON）流式返回全部歌单，边查询边写出，
+     * 服务端不会在内存中持有完整的结果。
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllPlaylists() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            playlistService.streamAllPlaylists(playlist -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(playlist));
+                    out.write('\n');
+                } catch (IOException e) {
+                    // 通常是客户端中途断开了连接，抛出后会结束查询并关闭游标
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * 歌单摘要列表：GET /api/playlists/summaries?limit=50&after=123
+     * 分页方式与 GET /api/playlists 相同，只返回所有者、歌曲数和总时长，适合列表页使用。
+     */
+    @GetMapping("/summaries")
+    public List<PlaylistSummaryDTO> getPlaylistSummaries(@RequestParam(required = false) Long after,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        return playlistService.getPlaylistSummaries(after, limit);
     }
 
     @GetMapping("/{id}")
@@ -50,9 +107,49 @@ public class PlaylistController {
     @ResponseStatus(HttpStatus.CREATED)
     @PreAuthorize("@securityUtils.isPlaylistOwner(#id, authentication.name)")
     public void addSongToPlaylist(@PathVariable Long id,
-                                  @RequestBody SongCreateDTO songCreateDTO,
-                                  Authentication authentication) {
-        playlistService.addSongToPlaylist(id, songCreateDTO, authentication.getName());
+                                  @RequestBody SongCreateDTO songCreateDTO) {
+        playlistService.addSongToPlaylist(id, songCreateDTO);
+    }
+
+    /**
+     * 批量导入歌曲，请求体是 SongCreateDTO 的JSON数组。请求体边读边导入，不会整体读进内存。
+     * 与单首添加一样，接口不接收时长，导入的歌曲时长都记为 0。
+     */
+    @PostMapping(value = "/{id}/songs/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("@securityUtils.isPlaylistOwner(#id, authentication.name)")
+    public SongImportResultDTO importSongsFromJson(@PathVariable Long id,
+                                                   InputStream body) throws IOException {
+        try (SongImportSource source = SongImportSource.json(body, objectMapper)) {
+            return playlistService.importSongs(id, source);
+        } catch (JsonProcessingException e) {
+            // 只有请求体开头就不是JSON数组时才会走到这里，逐行的错误会记录在导入结果中
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "请求体必须是JSON数组", e);
+        }
+    }
+
+    /**
+     * 批量导入歌曲，请求体是每行 "title,artist" 的CSV（Content-Type: text/csv），解析规则见 {@link SongImportSource#csv}。
+     * 没有时长列，导入的歌曲时长都记为 0；多出的列（例如第三列时长）会让这一行被当作格式错误跳过。
+     */
+    @PostMapping(value = "/{id}/songs/import", consumes = "text/csv")
+    @PreAuthorize("@securityUtils.isPlaylistOwner(#id, authentication.name)")
+    public SongImportResultDTO importSongsFromCsv(@PathVariable Long id,
+                                                  InputStream body) throws IOException {
+        try (SongImportSource source = SongImportSource.csv(body)) {
+            return playlistService.importSongs(id, source);
+        }
+    }
+
+    /**
+     * 拖拽排序：把歌曲移动到 afterSongId 之后，afterSongId 为 null 表示移动到最前面。
+     */
+    @PutMapping("/{playlistId}/songs/{songId}/position")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("@securityUtils.isPlaylistOwner(#playlistId, authentication.name)")
+    public void moveSong(@PathVariable Long playlistId,
+                         @PathVariable Long songId,
+                         @RequestBody MoveSongRequest request) {
+        playlistService.moveSong(playlistId, songId, request.afterSongId());
     }
 
     @DeleteMapping("/{playlistId}/songs/{songId}")
@@ -67,10 +164,13 @@ public class PlaylistController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("@securityUtils.isPlaylistOwner(#id, authentication.name)")
-    public void deletePlaylist(@PathVariable Long id, Authentication authentication) {
-        playlistService.deletePlaylist(id, authentication.getName());
+    public void deletePlaylist(@PathVariable Long id) {
+        playlistService.deletePlaylist(id);
     }
 
     public record CreatePlaylistRequest(String name) {
     }
+
+    public record MoveSongRequest(Long afterSongId) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.vibevault.dto;
+
+// 歌单列表页使用的轻量视图：只有歌单本身的信息和统计值，不包含歌曲。
+public record PlaylistSummaryDTO(Long id, String name, String owner, long songCount, long totalDurationInSeconds) {
+}
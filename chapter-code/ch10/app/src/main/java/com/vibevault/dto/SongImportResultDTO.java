@@ -0,0 +1,13 @@
+package com.vibevault.dto;
+
+import java.util.List;
+
+/**
+ * 批量导入的结果。completed 为 false 表示请求体在中途无法继续解析，之后的数据没有被导入；
+ * errors 最多列出前 100 个出错的行，failed 是全部出错行的数量。
+ */
+public record SongImportResultDTO(long imported, long failed, boolean completed, List<RowError> errors) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -1,16 +1,21 @@
 package com.vibevault.model;
 
 import jakarta.persistence.*; // 引入JPA注解
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 @Entity
 @Table(name = "playlists")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 读多写少：读取走二级缓存，写入时同步更新/失效缓存
 public class Playlist {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlists_id_seq")
+    @SequenceGenerator(name = "playlists_id_seq", sequenceName = "playlists_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -25,6 +30,8 @@ public class Playlist {
         cascade = CascadeType.ALL,
         orphanRemoval = true
     )
+    @OrderBy("position ASC, id ASC") // 加载时按排序键排列，排序键相同（并发追加）时按id
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 集合缓存：只缓存歌曲id列表，歌曲本身在 Song 的缓存里
     private List<Song> songs = new ArrayList<>();
 
     protected Playlist() {
@@ -52,6 +59,8 @@ public class Playlist {
     }
 
     public void addSong(Song song) {
+        long lastPosition = songs.isEmpty() ? 0 : songs.get(songs.size() - 1).getPosition();
+        song.setPosition(lastPosition + Song.POSITION_GAP);
         songs.add(song);
         song.setPlaylist(this);
     }
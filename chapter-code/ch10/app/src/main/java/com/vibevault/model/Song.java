@@ -1,19 +1,37 @@
 package com.vibevault.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity // <--- 1. 声明为实体
 @Table(name = "songs") // <--- 2. 映射到'songs'表
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Song {
 
+    // 每次从序列取号时预留的id个数，必须与数据库中 songs_id_seq 的 INCREMENT BY 一致（见 V3 迁移）
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // 相邻两首歌 position 之间的初始间隔。移动歌曲时取前后两首歌的中间值，
+    // 同一位置可以连续插入约 20 次才会用完间隔，那时才需要把整个歌单重新编号
+    public static final long POSITION_GAP = 1L << 20;
+
     @Id // <--- 3. 标记主键
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // <--- 4. 主键生成策略：由数据库自增
+    // <--- 4. 主键生成策略：使用序列并一次预留一批id。与 IDENTITY 不同，插入前就已知道id，
+    // Hibernate 可以把多条 INSERT 攒成一个 JDBC 批次，而不必每插入一行就立即执行一次
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "songs_id_seq")
+    @SequenceGenerator(name = "songs_id_seq", sequenceName = "songs_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String title;
     private String artist;
     private int durationInSeconds;
 
+    // 歌曲在歌单中的排序键，按升序排列；不要求连续，只要求相对大小正确
+    @Column(nullable = false)
+    private long position;
+
     // --- 5. 定义多对一关系 ---
     @ManyToOne(fetch = FetchType.LAZY) // LAZY: 懒加载，只有在实际访问playlist时才从数据库加载
     @JoinColumn(name = "playlist_id", referencedColumnName = "id") // 定义外键列的列名为'playlist_id'
@@ -36,11 +54,16 @@ public class Song {
     public String getArtist() { return artist; }
     public int getDurationInSeconds() { return durationInSeconds; }
     public Playlist getPlaylist() { return playlist; }
+    public long getPosition() { return position; }
 
     // Setter for the bidirectional relationship
     public void setPlaylist(Playlist playlist) {
         this.playlist = playlist;
     }
 
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
     // 移除了 toCsvString 和 fromCsvString，因为我们不再需要它们
 }
\ No newline at end of file
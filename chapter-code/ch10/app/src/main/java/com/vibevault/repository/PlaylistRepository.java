@@ -1,8 +1,20 @@
 package com.vibevault.repository;
 
+import com.vibevault.dto.PlaylistSummaryDTO;
 import com.vibevault.model.Playlist;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -20,4 +32,54 @@ public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
     // - ...等等
 
     Optional<Playlist> findByName(String name);
+
+    // 权限检查只需要知道"这个歌单是否属于这个用户"：一条 JOIN users 的 EXISTS 查询，
+    // 走 playlists 主键和 users.username 唯一索引，不需要加载歌单实体和它的 owner。
+    boolean existsByIdAndOwnerUsername(Long id, String username);
+
+    // 直接按主键删除歌单，不加载实体，也不会为了级联删除先加载它的歌曲；返回删除的行数（0 或 1）。
+    // 歌曲需要先用 SongRepository#deleteAllInPlaylist 删除。
+    @Modifying
+    @Query("DELETE FROM Playlist p WHERE p.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    // findAll() 只查询 playlists 表，之后每访问一个歌单的 songs 都会再发一条SQL（N+1问题）。
+    // 这里用实体图让 Hibernate 通过一次 LEFT JOIN 把歌单和它们的歌曲一起查出来。
+    @EntityGraph(attributePaths = "songs")
+    @Query("SELECT p FROM Playlist p ORDER BY p.id")
+    List<Playlist> findAllWithSongs();
+
+    // --- 键集（keyset）分页 ---
+    // 用"上一页最后一个id"代替 OFFSET：无论翻到第几页，数据库都只需沿主键索引扫描 limit 行。
+    // 分两步查询：先取出这一页的歌单id，再连同歌曲一起加载这些歌单。
+    // 不能直接对 JOIN FETCH 的查询加 LIMIT，那样 Hibernate 会把所有行读进内存再分页。
+    @Query("SELECT p.id FROM Playlist p WHERE p.id > :after ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("after") long after, Pageable pageable);
+
+    @EntityGraph(attributePaths = "songs")
+    @Query("SELECT p FROM Playlist p WHERE p.id IN :ids ORDER BY p.id")
+    List<Playlist> findAllWithSongsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // --- 流式读取 ---
+    // 返回的 Stream 底层是数据库游标，必须在事务内使用并在用完后关闭。
+    // fetchSize 让 PostgreSQL 驱动每次只取一批行，而不是一次性把整个结果集读进内存。
+    @EntityGraph(attributePaths = "songs")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT p FROM Playlist p ORDER BY p.id")
+    Stream<Playlist> streamAllWithSongs();
+
+    // --- 摘要投影 ---
+    // 直接在数据库里分组统计，查询结果由 Hibernate 通过构造函数表达式映射成 DTO，
+    // 不会创建任何 Playlist 或 Song 实体，一页数据只需要一条SQL。
+    @Query("""
+            SELECT new com.vibevault.dto.PlaylistSummaryDTO(
+                p.id, p.name, o.username, COUNT(s), COALESCE(SUM(s.durationInSeconds), 0L))
+            FROM Playlist p
+            JOIN p.owner o
+            LEFT JOIN p.songs s
+            WHERE p.id > :after
+            GROUP BY p.id, p.name, o.username
+            ORDER BY p.id
+            """)
+    List<PlaylistSummaryDTO> findSummariesAfter(@Param("after") long after, Pageable pageable);
 }
@@ -0,0 +1,65 @@
+package com.vibevault.repository;
+
+import com.vibevault.dto.SongCreateDTO;
+import com.vibevault.model.Song;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 批量导入歌曲时绕过 JPA，直接用 JDBC 批处理插入：
+ * 不创建实体、不需要取回生成的id，一批数据只需要两次网络往返（取号和插入）
+ * （配合连接参数 reWriteBatchedInserts=true，驱动会把它们合并成多行 INSERT）。
+ *
+ * id 与 Hibernate 一样从 songs_id_seq 按块分配：每次 nextval 得到一个起点，
+ * 预留 [起点, 起点 + Song.ID_ALLOCATION_SIZE) 这一段，两边分配的id不会冲突。
+ *
+ * 这些SQL不经过 Hibernate，但同样从应用的 DataSource 取连接，请求的SQL条数统计（SqlStatementCounter）会自动计入。
+ */
+@Repository
+public class SongBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO songs (id, playlist_id, title, artist, duration_in_seconds, position) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MAX_POSITION_SQL =
+            "SELECT COALESCE(MAX(position), 0) FROM songs WHERE playlist_id = ?";
+    private static final String NEXT_ID_BLOCKS_SQL =
+            "SELECT nextval('songs_id_seq') FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SongBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 每批在单独的事务中提交：导入中途失败时，之前已经提交的批次会保留
+    @Transactional
+    public void insertAll(Long playlistId, List<SongCreateDTO> songs) {
+        int blocks = (songs.size() + Song.ID_ALLOCATION_SIZE - 1) / Song.ID_ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(NEXT_ID_BLOCKS_SQL, Long.class, blocks);
+        // 导入的歌曲依次排在歌单末尾
+        long lastPosition = jdbcTemplate.queryForObject(MAX_POSITION_SQL, Long.class, playlistId);
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                SongCreateDTO song = songs.get(i);
+                statement.setLong(1, blockStarts.get(i / Song.ID_ALLOCATION_SIZE) + i % Song.ID_ALLOCATION_SIZE);
+                statement.setLong(2, playlistId);
+                statement.setString(3, song.title());
+                statement.setString(4, song.artist());
+                // SongCreateDTO 没有时长，与单首添加（PlaylistServiceImpl.addSongToPlaylist）一样记为 0
+                statement.setInt(5, 0);
+                statement.setLong(6, lastPosition + (i + 1) * Song.POSITION_GAP);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return songs.size();
+            }
+        });
+    }
+}
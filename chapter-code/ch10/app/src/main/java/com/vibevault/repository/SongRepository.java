@@ -0,0 +1,62 @@
+package com.vibevault.repository;
+
+import com.vibevault.model.Song;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SongRepository extends JpaRepository<Song, Long> {
+
+    // 直接按主键删除一首歌，不加载歌单和它的歌曲列表，耗时与歌单大小无关。
+    // 只有歌曲属于这个歌单、且歌单属于当前用户时才会删除；返回删除的行数（0 或 1）。
+    @Modifying
+    @Query("""
+            DELETE FROM Song s
+            WHERE s.id = :songId
+              AND s.playlist.id = :playlistId
+              AND EXISTS (SELECT 1 FROM Playlist p
+                          WHERE p.id = :playlistId AND p.owner.username = :username)
+            """)
+    int deleteFromOwnedPlaylist(@Param("songId") Long songId,
+                                @Param("playlistId") Long playlistId,
+                                @Param("username") String username);
+
+    // 删除歌单前一次删掉它的所有歌曲。派生的 deleteByPlaylistId 会先把歌曲逐个加载再逐条删除
+    @Modifying
+    @Query("DELETE FROM Song s WHERE s.playlist.id = :playlistId")
+    int deleteAllInPlaylist(@Param("playlistId") Long playlistId);
+
+    Optional<Song> findByIdAndPlaylistId(Long id, Long playlistId);
+
+    // 以下查询都由 (playlist_id, position) 索引支持，只读取索引中的一两项，与歌单大小无关
+
+    @Query("SELECT COALESCE(MAX(s.position), 0) FROM Song s WHERE s.playlist.id = :playlistId")
+    long findMaxPosition(@Param("playlistId") Long playlistId);
+
+    // 按 (position, id) 顺序排在 (afterPosition, afterId) 之后的第一首歌的排序键（不包括正在移动的歌曲本身），
+    // 没有时返回 null。并发追加可能产生相同的 position，这时排序由 id 决定，
+    // 只比较 position 会跳过与前一首歌并列的下一首歌
+    @Query("""
+            SELECT MIN(s.position) FROM Song s
+            WHERE s.playlist.id = :playlistId AND s.id <> :excludedSongId
+              AND (s.position > :afterPosition OR (s.position = :afterPosition AND s.id > :afterId))
+            """)
+    Long findNextPosition(@Param("playlistId") Long playlistId,
+                          @Param("afterPosition") long afterPosition,
+                          @Param("afterId") long afterId,
+                          @Param("excludedSongId") Long excludedSongId);
+
+    // 相邻排序键之间已经没有空隙时，按当前顺序把整个歌单重新编号为 1、2、3... 倍的间隔
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE songs s SET position = r.rn * :gap
+            FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn
+                  FROM songs WHERE playlist_id = :playlistId) r
+            WHERE s.id = r.id
+            """, nativeQuery = true)
+    int renumberPositions(@Param("playlistId") Long playlistId, @Param("gap") long gap);
+}
@@ -1,6 +1,11 @@
 package com.vibevault.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -9,7 +14,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 
 @Service
@@ -18,14 +27,45 @@ public class JwtService {
     @Value("${jwt.secret:my-very-secure-secret-key-min-256-bits-for-HS256-algorithm}")
     private String secretKeyString;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
     private SecretKey signingKey;
 
+    // JwtParser 是不可变、线程安全的，只需要创建一次
+    private JwtParser parser;
+
+    // 已验证的令牌：key 是令牌的 SHA-256 摘要（不在内存里长期保存令牌原文），条目在令牌过期时自动移除
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     // 24小时有效期
     private static final long EXPIRATION_MS = 24 * 60 * 60 * 1000;
 
     @PostConstruct
     private void init() {
         this.signingKey = Keys.hmacShaKeyFor(secretKeyString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(String username) {
@@ -38,29 +78,43 @@ public class JwtService {
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
-    }
+    /**
+     * 验证令牌并返回其中的用户名和过期时间。签名、格式和有效期只检查一次：
+     * 同一个令牌在过期前再次出现时，直接返回缓存的结果。
+     *
+     * @throws JwtException 令牌无效或已过期
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            // 缓存条目的移除可能稍有延迟，这里再确认一次没有过期
+            if (cached.expiresAt().isAfter(Instant.now())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(key);
+        }
 
-    public boolean isTokenValid(String token, String username) {
-        try {
-            String extractedUsername = extractUsername(token);
-            return extractedUsername.equals(username) && !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+        // 解析时 jjwt 会同时校验签名和 exp，过期的令牌会抛出 ExpiredJwtException
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("JWT缺少 sub 或 exp");
         }
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration().toInstant());
+        verifiedTokens.put(key, verified);
+        return verified;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token).getExpiration().before(new Date());
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // 每个JVM都必须提供 SHA-256
+            throw new IllegalStateException(e);
+        }
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public record VerifiedToken(String username, Instant expiresAt) {
     }
 }
-
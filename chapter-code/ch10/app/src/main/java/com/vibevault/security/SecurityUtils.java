@@ -1,5 +1,6 @@
 package com.vibevault.security;
 
+import com.vibevault.exception.ResourceNotFoundException;
 import com.vibevault.repository.PlaylistRepository;
 import org.springframework.stereotype.Component;
 
@@ -12,10 +13,19 @@ public class SecurityUtils {
         this.playlistRepository = playlistRepository;
     }
 
+    /**
+     * 供 {@code @PreAuthorize} 使用：歌单属于当前用户时返回 true，属于别人时返回 false（403）。
+     * 歌单根本不存在时抛出 ResourceNotFoundException（404）——SpEL 会原样抛出方法中的运行时异常，
+     * 否则所有不存在的歌单都会被当成"无权访问"。只有检查失败时才会多一条查询。
+     */
     public boolean isPlaylistOwner(Long playlistId, String currentUsername) {
-        return playlistRepository.findById(playlistId)
-                .map(playlist -> playlist.getOwner().getUsername().equals(currentUsername))
-                .orElse(false);
+        if (playlistRepository.existsByIdAndOwnerUsername(playlistId, currentUsername)) {
+            return true;
+        }
+        if (!playlistRepository.existsById(playlistId)) {
+            throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
+        }
+        return false;
     }
 }
 
@@ -0,0 +1,114 @@
+package com.vibevault.service;
+
+import com.vibevault.dto.SongCreateDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 逐条读取CSV记录，一条记录格式错误只影响这一条。
+// 加了引号的字段可以包含换行，这时一条记录跨越多个物理行
+final class CsvSongImportSource implements SongImportSource {
+
+    // 一条记录的最大字符数：引号没有闭合时，不会把请求体剩下的内容都当成同一个字段读进内存
+    private static final int MAX_RECORD_LENGTH = 8192;
+
+    private final BufferedReader reader;
+    // 已经读过的物理行数
+    private long line;
+    // 最近一条记录开始的行号
+    private long row;
+
+    CsvSongImportSource(InputStream body) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public SongCreateDTO next() throws IOException {
+        String first;
+        do {
+            first = reader.readLine();
+            if (first == null) {
+                return null;
+            }
+            line++;
+        } while (first.isBlank() || (line == 1 && first.trim().equalsIgnoreCase("title,artist")));
+        row = line;
+
+        StringBuilder record = new StringBuilder(first);
+        while (hasUnclosedQuote(record)) {
+            String next = reader.readLine();
+            if (next == null) {
+                throw new IllegalArgumentException("CSV格式错误：引号没有闭合");
+            }
+            line++;
+            record.append('\n').append(next);
+            if (record.length() > MAX_RECORD_LENGTH) {
+                // 放弃这条记录，从下一行开始继续读取
+                throw new IllegalArgumentException("CSV格式错误：引号没有闭合或记录超过 " + MAX_RECORD_LENGTH + " 个字符");
+            }
+        }
+
+        List<String> fields = parseRecord(record);
+        if (fields.size() != 2) {
+            throw new IllegalArgumentException("CSV格式错误：期望2个字段（title,artist），实际得到 " + fields.size() + " 个字段");
+        }
+        return new SongCreateDTO(fields.get(0), fields.get(1));
+    }
+
+    @Override
+    public long rowNumber() {
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // 字段内的 "" 是两个引号，所以引号总数为奇数时，最后一个引号还没有闭合
+    private static boolean hasUnclosedQuote(CharSequence record) {
+        int quotes = 0;
+        for (int i = 0; i < record.length(); i++) {
+            if (record.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 != 0;
+    }
+
+    // 支持用双引号括起来的字段，字段内的 "" 表示一个双引号
+    private static List<String> parseRecord(CharSequence line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("CSV格式错误：引号没有闭合");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
@@ -0,0 +1,58 @@
+package com.vibevault.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibevault.dto.SongCreateDTO;
+import java.io.IOException;
+import java.io.InputStream;
+
+// 用 Jackson 的流式 API 逐个读取数组元素，内存中同时只有一个元素
+final class JsonSongImportSource implements SongImportSource {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private long row;
+
+    JsonSongImportSource(InputStream body, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.createParser(body);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "请求体必须是JSON数组");
+        }
+    }
+
+    @Override
+    public SongCreateDTO next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        row++;
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            throw new IllegalArgumentException("数组元素必须是JSON对象");
+        }
+        // 先把整个元素读成树：JSON语法错误（请求体无法继续解析）会在这里抛出 IOException；
+        // 读完之后解析器正好停在元素末尾，字段类型不对（例如 {"title": ["x"]}）只影响这一个元素
+        JsonNode element = parser.readValueAsTree();
+        try {
+            return objectMapper.treeToValue(element, SongCreateDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("字段类型不正确：" + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public long rowNumber() {
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
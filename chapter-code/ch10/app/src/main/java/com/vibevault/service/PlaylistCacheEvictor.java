@@ -0,0 +1,44 @@
+package com.vibevault.service;
+
+import com.vibevault.model.Playlist;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 让歌单的歌曲列表二级缓存失效。
+ *
+ * 通过实体进行的修改 Hibernate 会自己维护缓存，这里只处理它感知不到的情况：
+ * 用 JDBC 直接插入的歌曲（批量导入），以及只修改了 position 的歌曲（集合缓存中保存的是排好序的id列表）。
+ * 在事务中调用时，等事务提交后才失效，避免其他请求在提交前把旧数据重新放回缓存。
+ */
+@Component
+class PlaylistCacheEvictor {
+
+    private static final String SONGS_REGION = Playlist.class.getName() + ".songs";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    PlaylistCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    void evictSongs(Long playlistId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(playlistId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(playlistId);
+            }
+        });
+    }
+
+    private void evictNow(Long playlistId) {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictCollectionData(SONGS_REGION, playlistId);
+    }
+}
@@ -1,19 +1,56 @@
 package com.vibevault.service;
 
 import com.vibevault.dto.PlaylistDTO;
+import com.vibevault.dto.PlaylistSummaryDTO;
 import com.vibevault.dto.SongCreateDTO;
+import com.vibevault.dto.SongImportResultDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * 修改歌单的方法（添加、导入、移动、删除）不检查权限，也不接收当前用户名：调用方必须已经确认当前用户是歌单的所有者，
+ * 例如 PlaylistController 上的 {@code @PreAuthorize("@securityUtils.isPlaylistOwner(...)")}，
+ * 歌单不存在时它会直接返回 404。同一个请求里再查一次所有者只是多一条一模一样的SQL。
+ * 删除单首歌曲仍然带着用户名，因为它的 DELETE 语句本身就带有所有者条件，不需要额外的查询。
+ */
 public interface PlaylistService {
     List<PlaylistDTO> getAllPlaylists();
 
+    /**
+     * 按id升序返回 after 之后的最多 limit 个歌单。after 为 null 时从第一个歌单开始；
+     * 下一页把这一页最后一个歌单的id作为 after 传入，返回空列表表示已经没有更多歌单。
+     */
+    List<PlaylistDTO> getPlaylistsPage(Long after, int limit);
+
+    /**
+     * 按id升序把所有歌单逐个交给 consumer，内存中同时只保留一小批歌单。
+     */
+    void streamAllPlaylists(Consumer<PlaylistDTO> consumer);
+
+    /**
+     * 与 getPlaylistsPage 相同的分页方式，但只返回歌单摘要（所有者、歌曲数、总时长），不加载歌曲。
+     */
+    List<PlaylistSummaryDTO> getPlaylistSummaries(Long after, int limit);
+
     PlaylistDTO getPlaylistById(Long id);
 
     PlaylistDTO createPlaylist(String name, String ownerUsername);
 
-    void addSongToPlaylist(Long playlistId, SongCreateDTO songCreateDTO, String currentUsername);
+    void addSongToPlaylist(Long playlistId, SongCreateDTO songCreateDTO);
+
+    /**
+     * 把 source 中的歌曲分批导入歌单。格式不正确的行会被跳过并记录在结果中，其余的行照常导入。
+     * 导入进度只写在服务端日志里，调用方在导入结束后一次性拿到结果。
+     */
+    SongImportResultDTO importSongs(Long playlistId, SongImportSource source);
+
+    /**
+     * 把歌曲移动到 afterSongId 这首歌之后；afterSongId 为 null 时移动到歌单最前面。
+     * 通常只修改被移动的这一行。
+     */
+    void moveSong(Long playlistId, Long songId, Long afterSongId);
 
     void removeSongFromPlaylist(Long playlistId, Long songId, String currentUsername);
 
-    void deletePlaylist(Long playlistId, String currentUsername);
+    void deletePlaylist(Long playlistId);
 }
@@ -1,40 +1,106 @@
 package com.vibevault.service;
 
 import com.vibevault.dto.PlaylistDTO;
+import com.vibevault.dto.PlaylistSummaryDTO;
 import com.vibevault.dto.SongCreateDTO;
 import com.vibevault.dto.SongDTO;
+import com.vibevault.dto.SongImportResultDTO;
 import com.vibevault.exception.ResourceNotFoundException;
 import com.vibevault.model.Playlist;
 import com.vibevault.model.Song;
 import com.vibevault.model.User;
 import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.repository.SongBatchRepository;
+import com.vibevault.repository.SongRepository;
 import com.vibevault.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
+@Timed(value = "vibevault.playlist.service", description = "Time spent in PlaylistServiceImpl methods")
 public class PlaylistServiceImpl implements PlaylistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PlaylistServiceImpl.class);
+
+    // 单页最多返回的歌单数，防止客户端用一个很大的 limit 绕过分页
+    static final int MAX_PAGE_SIZE = 500;
+    // 批量导入时每批插入的行数，每批单独提交
+    static final int IMPORT_BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+    private static final int MAX_TEXT_LENGTH = 255;
+
     private final PlaylistRepository playlistRepository;
+    private final SongRepository songRepository;
+    private final SongBatchRepository songBatchRepository;
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final PlaylistCacheEvictor cacheEvictor;
 
     public PlaylistServiceImpl(PlaylistRepository playlistRepository,
-                               UserRepository userRepository) {
+                               SongRepository songRepository,
+                               SongBatchRepository songBatchRepository,
+                               UserRepository userRepository,
+                               EntityManager entityManager,
+                               PlaylistCacheEvictor cacheEvictor) {
         this.playlistRepository = playlistRepository;
+        this.songRepository = songRepository;
+        this.songBatchRepository = songBatchRepository;
         this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.cacheEvictor = cacheEvictor;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<PlaylistDTO> getAllPlaylists() {
-        return playlistRepository.findAll().stream()
+        return playlistRepository.findAllWithSongs().stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlaylistDTO> getPlaylistsPage(Long after, int limit) {
+        List<Long> ids = playlistRepository.findIdsAfter(after == null ? 0L : after, pageOf(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return playlistRepository.findAllWithSongsByIdIn(ids).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllPlaylists(Consumer<PlaylistDTO> consumer) {
+        try (Stream<Playlist> playlists = playlistRepository.streamAllWithSongs()) {
+            playlists.forEach(playlist -> {
+                consumer.accept(mapToDto(playlist));
+                // 写出后立即从持久化上下文中移除（级联到歌曲），否则已读过的实体会一直留在内存里
+                entityManager.detach(playlist);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PlaylistSummaryDTO> getPlaylistSummaries(Long after, int limit) {
+        return playlistRepository.findSummariesAfter(after == null ? 0L : after, pageOf(limit));
+    }
+
     @Override
     public PlaylistDTO getPlaylistById(Long id) {
         Playlist playlist = playlistRepository.findById(id)
@@ -58,51 +124,163 @@ public class PlaylistServiceImpl implements PlaylistService {
 
     @Override
     @Transactional
-    public void addSongToPlaylist(Long playlistId, SongCreateDTO songCreateDTO, String currentUsername) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
-
-        enforceOwnership(playlist, currentUsername);
-
+    public void addSongToPlaylist(Long playlistId, SongCreateDTO songCreateDTO) {
+        // getReferenceById 只创建一个代理，不查询歌单，也不会初始化它的歌曲列表；
+        // 保存歌曲时只需要代理上的id来填写 playlist_id 外键，无论歌单有多少首歌都只是一条 INSERT
         Song newSong = new Song(songCreateDTO.title(), songCreateDTO.artist(), 0);
-        playlist.addSong(newSong);
-        playlistRepository.save(playlist);
+        newSong.setPlaylist(playlistRepository.getReferenceById(playlistId));
+        // 追加到末尾：最大排序键来自 (playlist_id, position) 索引的最后一项
+        newSong.setPosition(songRepository.findMaxPosition(playlistId) + Song.POSITION_GAP);
+        songRepository.save(newSong);
     }
 
     @Override
     @Transactional
-    public void removeSongFromPlaylist(Long playlistId, Long songId, String currentUsername) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
-
-        enforceOwnership(playlist, currentUsername);
+    public void moveSong(Long playlistId, Long songId, Long afterSongId) {
+        if (songId.equals(afterSongId)) {
+            return;
+        }
 
-        Song targetSong = playlist.getSongs().stream()
-                .filter(song -> song.getId() != null && song.getId().equals(songId))
-                .findFirst()
+        Long newPosition = positionAfter(playlistId, songId, afterSongId);
+        if (newPosition == null) {
+            // 目标位置前后的排序键已经相邻，重新编号后一定有空隙
+            songRepository.renumberPositions(playlistId, Song.POSITION_GAP);
+            newPosition = positionAfter(playlistId, songId, afterSongId);
+        }
+        Song song = songRepository.findByIdAndPlaylistId(songId, playlistId)
                 .orElseThrow(() -> new ResourceNotFoundException("Song not found with id: " + songId));
+        song.setPosition(newPosition);
+        // 歌曲本身的缓存随更新自动刷新，但歌单缓存的歌曲顺序需要手动失效
+        cacheEvictor.evictSongs(playlistId);
+    }
 
-        playlist.removeSong(targetSong);
-        playlistRepository.save(playlist);
+    @Override
+    public SongImportResultDTO importSongs(Long playlistId, SongImportSource source) {
+        List<SongCreateDTO> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<SongImportResultDTO.RowError> errors = new ArrayList<>();
+        long imported = 0;
+        long failed = 0;
+        boolean completed = true;
+        try {
+            while (true) {
+                SongCreateDTO song;
+                try {
+                    song = source.next();
+                    if (song == null) {
+                        break;
+                    }
+                    validateImportedSong(song);
+                } catch (IllegalArgumentException e) {
+                    failed++;
+                    if (errors.size() < MAX_REPORTED_IMPORT_ERRORS) {
+                        errors.add(new SongImportResultDTO.RowError(source.rowNumber(), e.getMessage()));
+                    }
+                    continue;
+                }
+                batch.add(song);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    imported += flushImportBatch(playlistId, batch, imported);
+                }
+            }
+        } catch (IOException e) {
+            // 请求体已经无法继续解析：之前读到的行照常导入，之后的数据全部放弃
+            completed = false;
+            errors.add(new SongImportResultDTO.RowError(source.rowNumber(), "请求体解析失败，导入已中止：" + e.getMessage()));
+        }
+        imported += flushImportBatch(playlistId, batch, imported);
+        logger.info("歌单 {} 导入结束：成功 {} 首，失败 {} 行，{}", playlistId, imported, failed, completed ? "已完成" : "已中止");
+        return new SongImportResultDTO(imported, failed, completed, errors);
     }
 
     @Override
     @Transactional
-    public void deletePlaylist(Long playlistId, String currentUsername) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-                .orElseThrow(() -> new ResourceNotFoundException("Playlist not found with id: " + playlistId));
+    public void removeSongFromPlaylist(Long playlistId, Long songId, String currentUsername) {
+        int deleted = songRepository.deleteFromOwnedPlaylist(songId, playlistId, currentUsername);
+        if (deleted == 0) {
+            // 只有删除失败时才需要再查询一次，区分具体原因
+            requireOwnership(playlistId, currentUsername);
+            throw new ResourceNotFoundException("Song not found with id: " + songId);
+        }
+    }
 
-        enforceOwnership(playlist, currentUsername);
-        playlistRepository.delete(playlist);
+    @Override
+    @Transactional
+    public void deletePlaylist(Long playlistId) {
+        // 两条批量 DELETE，不加载歌单和它的歌曲：先删歌曲（外键），再删歌单。
+        // 歌单不存在时权限检查已经返回了 404；这里仍然检查删除的行数，防止与另一个删除请求并发时静默成功
+        songRepository.deleteAllInPlaylist(playlistId);
+        if (playlistRepository.deleteRowById(playlistId) == 0) {
+            throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
+        }
     }
 
-    private void enforceOwnership(Playlist playlist, String currentUsername) {
-        if (!playlist.getOwner().getUsername().equals(currentUsername)) {
+    private PageRequest pageOf(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
             throw new ResponseStatusException(
-                    HttpStatus.FORBIDDEN,
-                    "您无权操作此歌单"
+                    HttpStatus.BAD_REQUEST,
+                    "limit 必须在 1 到 " + MAX_PAGE_SIZE + " 之间"
             );
         }
+        return PageRequest.ofSize(limit);
+    }
+
+    // 计算排在 afterSongId 之后、原来的下一首歌之前的排序键；两者之间没有空隙时返回 null。
+    // 歌曲按 (position, id) 排序：下一首歌与 afterSongId 的 position 相同（并发追加造成的并列）时也没有空隙，
+    // 重新编号会按同样的顺序把并列拆开
+    private Long positionAfter(Long playlistId, Long songId, Long afterSongId) {
+        long lower = 0;
+        long lowerId = 0;
+        if (afterSongId != null) {
+            lower = songRepository.findByIdAndPlaylistId(afterSongId, playlistId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Song not found with id: " + afterSongId))
+                    .getPosition();
+            lowerId = afterSongId;
+        }
+        Long upper = songRepository.findNextPosition(playlistId, lower, lowerId, songId);
+        if (upper == null) {
+            return lower + Song.POSITION_GAP;
+        }
+        if (upper - lower < 2) {
+            return null;
+        }
+        return lower + (upper - lower) / 2;
+    }
+
+    private int flushImportBatch(Long playlistId, List<SongCreateDTO> batch, long importedSoFar) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int size = batch.size();
+        songBatchRepository.insertAll(playlistId, batch);
+        // JDBC 直接插入的行 Hibernate 不知道，这一批提交后让歌单的歌曲列表缓存失效
+        cacheEvictor.evictSongs(playlistId);
+        batch.clear();
+        logger.info("歌单 {} 导入进度：已写入 {} 首歌曲", playlistId, importedSoFar + size);
+        return size;
+    }
+
+    private static void validateImportedSong(SongCreateDTO song) {
+        if (song.title() == null || song.title().isBlank()) {
+            throw new IllegalArgumentException("title 不能为空");
+        }
+        if (song.title().length() > MAX_TEXT_LENGTH
+                || (song.artist() != null && song.artist().length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("title 和 artist 不能超过 " + MAX_TEXT_LENGTH + " 个字符");
+        }
+    }
+
+    // 不加载歌单实体的权限检查：歌单不存在时返回404，不属于当前用户时返回403
+    private void requireOwnership(Long playlistId, String currentUsername) {
+        if (playlistRepository.existsByIdAndOwnerUsername(playlistId, currentUsername)) {
+            return;
+        }
+        if (!playlistRepository.existsById(playlistId)) {
+            throw new ResourceNotFoundException("Playlist not found with id: " + playlistId);
+        }
+        throw new ResponseStatusException(
+                HttpStatus.FORBIDDEN,
+                "您无权操作此歌单"
+        );
     }
 
     private PlaylistDTO mapToDto(Playlist playlist) {
@@ -0,0 +1,42 @@
+package com.vibevault.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vibevault.dto.SongCreateDTO;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 批量导入时逐行读取请求体中的歌曲，不会把整个请求体读进内存。
+ */
+public interface SongImportSource extends Closeable {
+
+    /**
+     * 读取下一首歌曲，没有更多数据时返回 null。
+     *
+     * @throws IllegalArgumentException 这一行的内容不正确，调用方可以跳过它继续读取
+     * @throws IOException 请求体已经无法继续解析，导入必须中止
+     */
+    SongCreateDTO next() throws IOException;
+
+    /**
+     * 最近一次调用 next() 读到的行号（CSV中是这条记录开始的物理行，JSON数组中是元素序号），从 1 开始。
+     */
+    long rowNumber();
+
+    /**
+     * 请求体是 SongCreateDTO 的JSON数组：[{"title": "...", "artist": "..."}, ...]
+     * 某个元素的字段类型不正确时只跳过这个元素；JSON语法错误时导入中止。
+     */
+    static SongImportSource json(InputStream body, ObjectMapper objectMapper) throws IOException {
+        return new JsonSongImportSource(body, objectMapper);
+    }
+
+    /**
+     * 请求体是UTF-8编码的CSV，每行 "title,artist"，字段中有逗号、双引号或换行时用双引号括起来
+     * （RFC 4180），加了引号的字段可以跨越多行；第一行是 "title,artist" 表头时会被跳过。
+     */
+    static SongImportSource csv(InputStream body) {
+        return new CsvSongImportSource(body);
+    }
+}
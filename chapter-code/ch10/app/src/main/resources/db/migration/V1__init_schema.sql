@@ -1,6 +1,5 @@
-DROP TABLE IF EXISTS songs;
-DROP TABLE IF EXISTS playlists;
-DROP TABLE IF EXISTS users;
+-- 初始表结构（与原来 schema.sql 创建的结构相同）。
+-- 已经用 schema.sql 建过表的数据库会被 Flyway 标记为基线版本 1，不会再执行这个脚本。
 
 CREATE TABLE users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -23,4 +22,3 @@ CREATE TABLE songs (
     duration_in_seconds INTEGER NOT NULL,
     CONSTRAINT fk_songs_playlist FOREIGN KEY (playlist_id) REFERENCES playlists(id)
 );
-
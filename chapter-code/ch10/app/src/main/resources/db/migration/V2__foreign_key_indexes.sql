@@ -0,0 +1,9 @@
+-- PostgreSQL 不会为外键自动建索引，没有索引时按所有者查歌单、删除用户时检查外键引用，
+-- 都要对整张表做顺序扫描。
+
+-- songs.playlist_id 的索引在 V4 中与排序键一起创建：(playlist_id, position) 以 playlist_id 开头，
+-- 按歌单查歌曲、删除歌单时检查外键引用都能使用它，不需要再单独建一个只有 playlist_id 的索引。
+
+-- 按所有者查找歌单、删除用户时检查外键引用。
+CREATE INDEX IF NOT EXISTS idx_playlists_owner_id
+    ON playlists (owner_id);
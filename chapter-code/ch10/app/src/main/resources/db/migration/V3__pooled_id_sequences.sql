@@ -0,0 +1,8 @@
+-- 实体改为使用序列生成id（pooled-lo 优化器，每次取号预留 50 个id），
+-- 序列每次递增的步长必须与实体上的 allocationSize 一致。
+-- 这里直接调整 IDENTITY 列自带的序列（users_id_seq、playlists_id_seq、songs_id_seq），
+-- 已有的数据和id都保持不变，新的id从当前序列值之后继续分配。
+
+ALTER TABLE users ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE playlists ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE songs ALTER COLUMN id SET INCREMENT BY 50;
@@ -0,0 +1,16 @@
+-- 歌曲在歌单中的排序键。相邻歌曲之间留出 2^20 的间隔，移动一首歌时只需要把它改成前后两个值的中间值。
+ALTER TABLE songs ADD COLUMN position BIGINT;
+
+-- 已有的歌曲按插入顺序（id）编号
+UPDATE songs s
+SET position = r.rn * 1048576
+FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY playlist_id ORDER BY id) AS rn FROM songs) r
+WHERE s.id = r.id;
+
+ALTER TABLE songs ALTER COLUMN position SET NOT NULL;
+
+-- songs 上唯一的二级索引：按顺序加载歌单、查找末尾位置、移动时查找相邻位置、删除歌单时检查外键引用都使用它。
+-- 附带 id 和 duration_in_seconds：摘要查询是 LEFT JOIN，JPQL 的 COUNT(s) 编译成 count(s.id)（歌单没有歌曲时才能得到 0），
+-- 数据页在可见性映射中标记为全部可见时，count(s.id)、sum(s.duration_in_seconds) 可以只扫描索引，不用回表。
+CREATE INDEX IF NOT EXISTS idx_songs_playlist_position_covering
+    ON songs (playlist_id, position) INCLUDE (id, duration_in_seconds);
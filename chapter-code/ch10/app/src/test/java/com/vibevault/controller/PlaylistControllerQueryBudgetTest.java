@@ -0,0 +1,221 @@
+package com.vibevault.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.vibevault.config.SqlStatementCounter;
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import com.vibevault.model.User;
+import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.repository.UserRepository;
+import com.vibevault.security.JwtService;
+import com.vibevault.support.QueryBudget;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * PlaylistController 每个接口的SQL条数预算（见 {@link QueryBudget}）。
+ *
+ * 每个测试前都会清空二级缓存，预算按缓存未命中的情况计算。
+ * setUp 中的插入已经从序列取到了一批id（每批 50 个），测试方法里新增的歌单和歌曲直接使用，
+ * 不会再查询序列。流式接口在 applicationTaskExecutor 的线程中查询，这里给它加上 TaskDecorator，
+ * 把那边的SQL也计入测试线程的统计。
+ *
+ * 需要 Docker 启动 PostgreSQL；没有 Docker 的环境里整个类被跳过，而不是在启动容器时失败。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@Import(PlaylistControllerQueryBudgetTest.AsyncStatementCounting.class)
+class PlaylistControllerQueryBudgetTest {
+
+    @TestConfiguration
+    static class AsyncStatementCounting {
+
+        // Spring Boot 会把唯一的 TaskDecorator 应用到 applicationTaskExecutor，异步请求也在它上面执行
+        @Bean
+        TaskDecorator sqlStatementCounterPropagation() {
+            return SqlStatementCounter::propagate;
+        }
+    }
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Playlist playlist;
+    private Playlist singleSongPlaylist;
+    private String bearerToken;
+
+    @BeforeEach
+    void setUp() {
+        // 每个测试使用自己的用户，不需要在测试之间清理数据
+        String username = "budget-" + UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(username, "not-a-real-hash"));
+        bearerToken = "Bearer " + jwtService.generateToken(username);
+
+        Playlist twoSongs = new Playlist("road-trip", owner);
+        twoSongs.addSong(new Song("Drive", "The Cars", 221));
+        twoSongs.addSong(new Song("Send Me On My Way", "Rusted Root", 215));
+        playlist = playlistRepository.save(twoSongs);
+
+        Playlist oneSong = new Playlist("single", owner);
+        oneSong.addSong(new Song("Imagine", "John Lennon", 183));
+        singleSongPlaylist = playlistRepository.save(oneSong);
+
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    @Test
+    @QueryBudget(2) // 这一页的歌单id + 连同歌曲一起加载这些歌单
+    void getPlaylistsPage() throws Exception {
+        mockMvc.perform(get("/api/playlists")
+                        .param("after", Long.toString(playlist.getId() - 1))
+                        .param("limit", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1) // 一条游标查询连同歌曲读出全部歌单，与歌单数量无关
+    void streamAllPlaylists() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/playlists/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // asyncDispatch 会等异步线程写完响应，这时它执行的SQL都已经计入
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1) // 分组统计的投影查询
+    void getPlaylistSummaries() throws Exception {
+        mockMvc.perform(get("/api/playlists/summaries").param("limit", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2) // 歌单 + 歌曲列表
+    void getPlaylist() throws Exception {
+        mockMvc.perform(get("/api/playlists/{id}", playlist.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2) // 查询用户 + INSERT
+    void createPlaylist() throws Exception {
+        mockMvc.perform(post("/api/playlists")
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"new-playlist\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @QueryBudget(3) // 权限检查 + 最大排序键 + INSERT，不加载歌单和已有歌曲
+    void addSongToPlaylist() throws Exception {
+        mockMvc.perform(post("/api/playlists/{id}/songs", playlist.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Africa\",\"artist\":\"Toto\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @QueryBudget(4) // 权限检查 + 每一批（最多 1000 首）：取id段 + 最大排序键 + 批量 INSERT；类型不对的元素不产生SQL
+    void importSongsFromJson() throws Exception {
+        mockMvc.perform(post("/api/playlists/{id}/songs/import", playlist.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"Africa\",\"artist\":\"Toto\"},"
+                                + "{\"title\":[\"not-a-string\"]},"
+                                + "{\"title\":\"Rosanna\",\"artist\":\"Toto\"}]"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(4) // 与JSON导入相同
+    void importSongsFromCsv() throws Exception {
+        mockMvc.perform(post("/api/playlists/{id}/songs/import", playlist.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType("text/csv")
+                        .content("title,artist\nAfrica,Toto\n\"Hold the Line\",Toto\n"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(5) // 权限检查 + 目标位置的前一首 + 后一首 + 被移动的歌曲 + UPDATE
+    void moveSong() throws Exception {
+        Long first = playlist.getSongs().get(0).getId();
+        Long second = playlist.getSongs().get(1).getId();
+        mockMvc.perform(put("/api/playlists/{playlistId}/songs/{songId}/position", playlist.getId(), first)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"afterSongId\":" + second + "}"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @QueryBudget(2) // 权限检查 + 带所有者条件的 DELETE
+    void removeSong() throws Exception {
+        Long songId = playlist.getSongs().get(0).getId();
+        mockMvc.perform(delete("/api/playlists/{playlistId}/songs/{songId}", playlist.getId(), songId)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @QueryBudget(2) // 权限检查未通过 + 确认歌单不存在，返回 404 而不是 403
+    void deleteMissingPlaylist() throws Exception {
+        mockMvc.perform(delete("/api/playlists/{id}", Long.MAX_VALUE)
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @QueryBudget(3) // 权限检查 + 删除所有歌曲 + 删除歌单，与歌单中的歌曲数无关
+    void deletePlaylist() throws Exception {
+        mockMvc.perform(delete("/api/playlists/{id}", singleSongPlaylist.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearerToken))
+                .andExpect(status().isNoContent());
+    }
+}
@@ -0,0 +1,74 @@
+package com.vibevault.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.vibevault.dto.SongCreateDTO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CSV导入的解析规则（RFC 4180）：引号、跨行字段、CRLF 换行，以及出错后继续读取下一条记录。
+ */
+class CsvSongImportSourceTest {
+
+    @Test
+    void quotedFieldsMayContainCommasAndQuotes() throws IOException {
+        try (SongImportSource source = csv("title,artist\n\"Hello, Goodbye\",The Beatles\n\"Say \"\"Hi\"\"\",\"Band\"\n")) {
+            assertEquals(new SongCreateDTO("Hello, Goodbye", "The Beatles"), source.next());
+            assertEquals(2, source.rowNumber());
+            assertEquals(new SongCreateDTO("Say \"Hi\"", "Band"), source.next());
+            assertEquals(3, source.rowNumber());
+            assertNull(source.next());
+        }
+    }
+
+    @Test
+    void quotedFieldMaySpanLines() throws IOException {
+        try (SongImportSource source = csv("\"Line one\nLine two\",Artist\nNext,Song\n")) {
+            assertEquals(new SongCreateDTO("Line one\nLine two", "Artist"), source.next());
+            assertEquals(1, source.rowNumber());
+            // 行号是记录开始的物理行，跨行的记录之后从第 3 行继续
+            assertEquals(new SongCreateDTO("Next", "Song"), source.next());
+            assertEquals(3, source.rowNumber());
+            assertNull(source.next());
+        }
+    }
+
+    @Test
+    void crlfLineEndingsAreAccepted() throws IOException {
+        // Arrange: Windows 导出的文件，表头、记录和引号内的换行都是 \r\n
+        try (SongImportSource source = csv("title,artist\r\nAfrica,Toto\r\n\"Two\r\nLines\",Artist\r\n\r\nLast,One")) {
+            // Act + Assert: 行尾的 \r 不会留在字段里，引号内的 \r\n 读成 \n，最后一行没有换行符也能读到
+            assertEquals(new SongCreateDTO("Africa", "Toto"), source.next());
+            assertEquals(new SongCreateDTO("Two\nLines", "Artist"), source.next());
+            assertEquals(new SongCreateDTO("Last", "One"), source.next());
+            assertEquals(6, source.rowNumber());
+            assertNull(source.next());
+        }
+    }
+
+    @Test
+    void badRecordIsSkippedAndReadingContinues() throws IOException {
+        try (SongImportSource source = csv("Africa,Toto,extra\nRosanna,Toto\n")) {
+            assertThrows(IllegalArgumentException.class, source::next);
+            assertEquals(1, source.rowNumber());
+            assertEquals(new SongCreateDTO("Rosanna", "Toto"), source.next());
+        }
+    }
+
+    @Test
+    void unclosedQuoteAtEndOfInputIsRejected() throws IOException {
+        try (SongImportSource source = csv("\"Never closed,Artist\nmore\n")) {
+            assertThrows(IllegalArgumentException.class, source::next);
+            assertNull(source.next());
+        }
+    }
+
+    private static SongImportSource csv(String body) {
+        return SongImportSource.csv(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.vibevault.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vibevault.model.Playlist;
+import com.vibevault.model.Song;
+import com.vibevault.model.User;
+import com.vibevault.repository.PlaylistRepository;
+import com.vibevault.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * 歌曲排序键（position）的移动逻辑。
+ *
+ * 并发追加时两个请求可能读到同一个 MAX(position)，得到相同的排序键，这时顺序由 id 决定。
+ * 这里直接用 SQL 制造这样的并列，检查移动歌曲时仍然按 (position, id) 找到真正的下一首歌。
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class SongPositionTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Playlist playlist;
+
+    @BeforeEach
+    void setUp() {
+        String username = "positions-" + UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(new User(username, "not-a-real-hash"));
+
+        Playlist songs = new Playlist("tied", owner);
+        for (String title : List.of("A", "B", "C", "D")) {
+            songs.addSong(new Song(title, "Artist", 100));
+        }
+        playlist = playlistRepository.save(songs);
+    }
+
+    @Test
+    void moveIntoTiedPairLandsBetweenThem() {
+        // Arrange: B 和 A 的排序键相同，B 的 id 更大，所以顺序仍然是 A、B、C、D
+        tie("B", "A");
+        assertEquals(List.of("A", "B", "C", "D"), titlesInOrder());
+
+        // Act: 把 D 移到 A 之后，也就是 A 和 B 这对并列的歌曲之间
+        playlistService.moveSong(playlist.getId(), songId("D"), songId("A"));
+
+        // Assert
+        assertEquals(List.of("A", "D", "B", "C"), titlesInOrder());
+    }
+
+    @Test
+    void moveAfterSecondOfTiedPairKeepsTheTie() {
+        tie("B", "A");
+
+        playlistService.moveSong(playlist.getId(), songId("D"), songId("B"));
+
+        assertEquals(List.of("A", "B", "D", "C"), titlesInOrder());
+    }
+
+    @Test
+    void moveToFrontOfTiedPair() {
+        tie("B", "A");
+
+        playlistService.moveSong(playlist.getId(), songId("C"), null);
+
+        assertEquals(List.of("C", "A", "B", "D"), titlesInOrder());
+    }
+
+    // 把 title 的排序键改成和 sameAs 一样，模拟两个并发追加读到了同一个 MAX(position)
+    private void tie(String title, String sameAs) {
+        jdbcTemplate.update("UPDATE songs SET position = (SELECT position FROM songs WHERE id = ?) WHERE id = ?",
+                songId(sameAs), songId(title));
+        // 直接执行的 SQL 绕过了 Hibernate，清空二级缓存，避免读到旧的排序键
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+
+    private Long songId(String title) {
+        return jdbcTemplate.queryForObject("SELECT id FROM songs WHERE playlist_id = ? AND title = ?",
+                Long.class, playlist.getId(), title);
+    }
+
+    private List<String> titlesInOrder() {
+        return jdbcTemplate.queryForList("SELECT title FROM songs WHERE playlist_id = ? ORDER BY position, id",
+                String.class, playlist.getId());
+    }
+}
@@ -0,0 +1,22 @@
+package com.vibevault.support;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 断言测试方法本身（不含 @BeforeEach/@AfterEach）执行的SQL条数正好是 value 条，
+ * 计数规则见 {@link com.vibevault.config.SqlStatementCounter}。
+ *
+ * 多了通常说明引入了 N+1 查询或多余的懒加载；少了说明优化生效了，应该把预算一起调低，
+ * 让之后的改动不能悄悄把它加回去。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,45 @@
+package com.vibevault.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.vibevault.config.SqlStatementCounter;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * {@link QueryBudget} 的实现：测试方法执行前开始统计，执行后比较实际的SQL条数。
+ *
+ * MockMvc 在测试线程上同步处理请求，所以请求中的所有SQL都会计入；
+ * 请求过滤器自己的统计嵌套在这里面，互不影响。
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.start());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Recording recording =
+                context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementCounter.Recording.class);
+        recording.close();
+
+        // 测试本身已经失败时不再比较，避免用SQL条数的差异掩盖真正的错误
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .map(QueryBudget::value)
+                .orElseThrow(() -> new IllegalStateException("QueryBudgetExtension 只能通过 @QueryBudget 使用"));
+        assertEquals(budget, recording.count(), () -> "SQL条数与预算不符，实际执行的SQL：\n"
+                + recording.statements().entrySet().stream()
+                        .map(entry -> "  " + entry.getValue() + " 次：" + entry.getKey())
+                        .collect(Collectors.joining("\n")));
+    }
+}
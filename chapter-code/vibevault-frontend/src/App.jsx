@@ -8,6 +8,26 @@ import Login from './Login';
 import './App.css';
 import { apiGet, apiPost, apiDelete } from './utils/api';
 
+// GET /api/playlists is paginated (keyset on id, at most 500 per page)
+const PLAYLIST_PAGE_SIZE = 200;
+
+// Follow the `after` cursor until a short page says there is nothing left
+async function fetchAllPlaylists() {
+  const all = [];
+  let after = null;
+  while (true) {
+    const query = after === null
+      ? `?limit=${PLAYLIST_PAGE_SIZE}`
+      : `?limit=${PLAYLIST_PAGE_SIZE}&after=${after}`;
+    const page = await apiGet(`/playlists${query}`);
+    all.push(...page);
+    if (page.length < PLAYLIST_PAGE_SIZE) {
+      return all;
+    }
+    after = page[page.length - 1].id;
+  }
+}
+
 function App() {
   // --- State ---
   const [view, setView] = useState({ type: 'home' });
@@ -30,7 +50,7 @@ function App() {
     setLoading(true);
     setError('');
     try {
-      const data = await apiGet('/playlists');
+      const data = await fetchAllPlaylists();
       setPlaylists(data);
     } catch (e) {
       console.error("Failed to load playlists", e);